@@ -11,6 +11,7 @@ import com.imengyu.RNUiLib.smartrefresh.smartrefreshlayout.SmartRefreshLayoutMan
 import com.imengyu.RNUiLib.smartrefresh.smartrefreshlayout.RCTSpinnerStyleModule;
 import com.imengyu.RNUiLib.smartrefresh.header.ClassicsHeaderManager;
 import com.imengyu.RNUiLib.smartrefresh.header.DefaultHeaderMananger;
+import com.imengyu.RNUiLib.smartrefresh.header.LiteHeaderManager;
 import com.imengyu.RNUiLib.smartrefresh.header.MaterialHeaderManager;
 import com.imengyu.RNUiLib.smartrefresh.header.AnyHeaderManager;
 import com.imengyu.RNUiLib.toolbox.MeasureTextModule;
@@ -35,6 +36,7 @@ public class RNUiLibPackage implements ReactPackage {
     modules.add(new MaterialHeaderManager());
     modules.add(new AnyHeaderManager());
     modules.add(new DefaultHeaderMananger());
+    modules.add(new LiteHeaderManager());
     modules.add(new PickerViewAndroidViewManager(reactContext));
     return modules;
   }
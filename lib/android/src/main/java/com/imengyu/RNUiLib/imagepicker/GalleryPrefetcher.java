@@ -0,0 +1,169 @@
+package com.imengyu.RNUiLib.imagepicker;
+
+import android.content.Context;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.request.target.Target;
+import com.luck.picture.lib.adapter.PictureImageGridAdapter;
+import com.luck.picture.lib.entity.LocalMedia;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 相册列表的预加载
+ *
+ * 按滚动方向把接下来 N 行的缩略图以与列表相同的尺寸和格式预加载到 Glide 内存缓存中，
+ * 滚动方向改变时取消另一方向上还没有完成的预加载。
+ * 快速滑动（超过每秒一定行数）时暂停 Glide 请求，减速或停止后恢复，并从当前位置重新预加载。
+ * 不持有列表及其 LayoutManager、Adapter 的引用，都从滚动回调的参数中获取。
+ */
+class GalleryPrefetcher extends RecyclerView.OnScrollListener {
+
+    /**
+     * 滑动速度超过每秒多少行时暂停加载
+     */
+    private static final float PAUSE_ROWS_PER_SECOND = 20;
+    /**
+     * 两次滚动回调间隔超过该时间（毫秒）时不计算速度
+     */
+    private static final long MAX_VELOCITY_SAMPLE_INTERVAL = 100;
+
+    private final GlideEngine engine;
+    private final int prefetchRows;
+    private final Map<Integer, Target<?>> targets = new HashMap<>();
+
+    private int direction = 0;
+    private long lastScrollTime = 0;
+
+    private GalleryPrefetcher(GlideEngine engine, int prefetchRows) {
+        this.engine = engine;
+        this.prefetchRows = prefetchRows;
+    }
+
+    /**
+     * 为 PictureSelector 的相册列表创建预加载，列表不是预期的类型时返回 null
+     */
+    static GalleryPrefetcher attach(GlideEngine engine, RecyclerView recyclerView, int prefetchRows) {
+        if (!(recyclerView.getLayoutManager() instanceof GridLayoutManager)
+                || !(recyclerView.getAdapter() instanceof PictureImageGridAdapter))
+            return null;
+        GalleryPrefetcher prefetcher = new GalleryPrefetcher(engine, prefetchRows);
+        recyclerView.addOnScrollListener(prefetcher);
+        return prefetcher;
+    }
+
+    /**
+     * 列表从窗口移除时调用，取消未完成的预加载、恢复暂停的请求并移除监听
+     */
+    void detach(RecyclerView recyclerView) {
+        recyclerView.removeOnScrollListener(this);
+        cancelAll(recyclerView);
+        engine.setFlingPaused(recyclerView.getContext(), false);
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        if (dy == 0)
+            return;
+
+        int cellSize = getCellSize(recyclerView);
+        long now = SystemClock.uptimeMillis();
+        long interval = now - lastScrollTime;
+        lastScrollTime = now;
+        if (interval > 0 && interval < MAX_VELOCITY_SAMPLE_INTERVAL) {
+            float rowsPerSecond = Math.abs(dy) * 1000f / interval / cellSize;
+            engine.setFlingPaused(recyclerView.getContext(), rowsPerSecond > PAUSE_ROWS_PER_SECOND);
+        }
+
+        int newDirection = dy > 0 ? 1 : -1;
+        if (newDirection != direction) {
+            direction = newDirection;
+            cancelAll(recyclerView);
+        }
+        if (!engine.isFlingPaused())
+            prefetch(recyclerView);
+    }
+
+    @Override
+    public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+        if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+            engine.setFlingPaused(recyclerView.getContext(), false);
+            prefetch(recyclerView);
+        }
+    }
+
+    private int getCellSize(RecyclerView recyclerView) {
+        return engine.getGridCellSize(recyclerView.getContext(), recyclerView);
+    }
+
+    private void prefetch(RecyclerView recyclerView) {
+        if (direction == 0 || prefetchRows <= 0
+                || !(recyclerView.getLayoutManager() instanceof GridLayoutManager)
+                || !(recyclerView.getAdapter() instanceof PictureImageGridAdapter))
+            return;
+        GridLayoutManager layoutManager = (GridLayoutManager) recyclerView.getLayoutManager();
+        PictureImageGridAdapter adapter = (PictureImageGridAdapter) recyclerView.getAdapter();
+        int first = layoutManager.findFirstVisibleItemPosition();
+        int last = layoutManager.findLastVisibleItemPosition();
+        if (first == RecyclerView.NO_POSITION || last == RecyclerView.NO_POSITION)
+            return;
+
+        int count = prefetchRows * Math.max(1, layoutManager.getSpanCount());
+        int itemCount = adapter.getItemCount();
+        int from, to;
+        if (direction > 0) {
+            from = last + 1;
+            to = Math.min(last + count, itemCount - 1);
+        } else {
+            from = Math.max(first - count, 0);
+            to = first - 1;
+        }
+
+        //移除已经不在预加载范围内的请求
+        Context context = recyclerView.getContext();
+        Iterator<Map.Entry<Integer, Target<?>>> iterator = targets.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Target<?>> item = iterator.next();
+            if (item.getKey() < from || item.getKey() > to) {
+                Glide.with(context).clear(item.getValue());
+                iterator.remove();
+            }
+        }
+
+        List<LocalMedia> data = adapter.getData();
+        int offset = adapter.isDisplayCamera() ? 1 : 0;
+        int size = getCellSize(recyclerView);
+        for (int position = from; position <= to; position++) {
+            int index = position - offset;
+            if (targets.containsKey(position) || index < 0 || index >= data.size())
+                continue;
+            String path = data.get(index).getAvailablePath();
+            if (path == null)
+                continue;
+            //请求参数需要与 GlideEngine.loadGridImage 一致，才能命中内存缓存
+            Target<?> target = engine.applyThumbnailFormat(Glide.with(context).load(path))
+                    .override(size, size)
+                    .centerCrop()
+                    .preload(size, size);
+            targets.put(position, target);
+        }
+    }
+
+    private void cancelAll(RecyclerView recyclerView) {
+        if (targets.isEmpty())
+            return;
+        Context context = recyclerView.getContext();
+        for (Target<?> target : new ArrayList<>(targets.values()))
+            Glide.with(context).clear(target);
+        targets.clear();
+    }
+}
@@ -1,15 +1,27 @@
 package com.imengyu.RNUiLib.imagepicker;
 
 import android.content.Context;
+import android.util.DisplayMetrics;
+import android.view.View;
+import android.view.ViewParent;
 import android.widget.ImageView;
 
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.resource.bitmap.DownsampleStrategy;
 import com.bumptech.glide.load.resource.bitmap.CenterCrop;
 import com.bumptech.glide.load.resource.bitmap.RoundedCorners;
 import com.imengyu.RNUiLib.R;
 import com.luck.picture.lib.engine.ImageEngine;
 import com.luck.picture.lib.utils.ActivityCompatHelper;
 
+import java.util.Map;
+import java.util.WeakHashMap;
+
 /**
  * @author：luck
  * @date：2019-11-13 17:02
@@ -17,6 +29,25 @@ import com.luck.picture.lib.utils.ActivityCompatHelper;
  */
 public class GlideEngine implements ImageEngine {
 
+    /**
+     * 默认的列表列数，与 PictureSelector 相同
+     */
+    private static final int DEFAULT_SPAN_COUNT = 4;
+    /**
+     * 默认向滚动方向预加载的行数
+     */
+    private static final int DEFAULT_PREFETCH_ROWS = 3;
+
+    private final int spanCount;
+    private final String thumbnailDecodeFormat;
+    private final int prefetchRows;
+    //预加载对象只弱引用列表，不会使 WeakHashMap 的 key 无法回收
+    private final Map<RecyclerView, GalleryPrefetcher> prefetchers = new WeakHashMap<>();
+    //第一次布局后确定的列表图片尺寸，之后所有列表图片和预加载都使用同一尺寸，保证能命中内存缓存
+    private int gridCellSize = 0;
+    private boolean selectorPaused = false;
+    private boolean flingPaused = false;
+
     /**
      * 加载图片
      *
@@ -29,8 +60,12 @@ public class GlideEngine implements ImageEngine {
         if (!ActivityCompatHelper.assertValidRequest(context)) {
             return;
         }
+        //预览图最大只解码到屏幕大小
+        DisplayMetrics metrics = context.getResources().getDisplayMetrics();
         Glide.with(context)
                 .load(url)
+                .override(metrics.widthPixels, metrics.heightPixels)
+                .downsample(DownsampleStrategy.AT_MOST)
                 .into(imageView);
     }
 
@@ -80,32 +115,128 @@ public class GlideEngine implements ImageEngine {
         if (!ActivityCompatHelper.assertValidRequest(context)) {
             return;
         }
-        Glide.with(context)
-                .load(url)
-                .override(200, 200)
+        RecyclerView recyclerView = findRecyclerView(imageView);
+        int size = getGridCellSize(context, recyclerView);
+        if (recyclerView != null)
+            attachPrefetcher(recyclerView);
+        applyThumbnailFormat(Glide.with(context).load(url))
+                .override(size, size)
                 .centerCrop()
                 .placeholder(R.drawable.ps_image_placeholder)
                 .into(imageView);
     }
 
+    /**
+     * 列表图片的解码尺寸。列表测量完成后按列表宽度和列数计算一次并固定下来，
+     * 第一屏的图片在列表布局过程中加载，此时已经能获取测量宽度，因此所有列表图片和预加载都使用同一尺寸。
+     * 找不到列表时按屏幕宽度和列数估算
+     */
+    int getGridCellSize(Context context, RecyclerView recyclerView) {
+        if (gridCellSize > 0)
+            return gridCellSize;
+        if (recyclerView != null) {
+            int width = recyclerView.getMeasuredWidth() - recyclerView.getPaddingLeft() - recyclerView.getPaddingRight();
+            if (width > 0) {
+                int columns = recyclerView.getLayoutManager() instanceof GridLayoutManager
+                        ? ((GridLayoutManager) recyclerView.getLayoutManager()).getSpanCount() : spanCount;
+                gridCellSize = Math.max(1, width / Math.max(1, columns));
+                return gridCellSize;
+            }
+        }
+        return Math.max(1, context.getResources().getDisplayMetrics().widthPixels / spanCount);
+    }
+
+    private static RecyclerView findRecyclerView(ImageView imageView) {
+        ViewParent parent = imageView.getParent();
+        while (parent != null && !(parent instanceof RecyclerView))
+            parent = parent.getParent();
+        return (RecyclerView) parent;
+    }
+
+    /**
+     * 为图片所在的相册列表添加预加载，列表从窗口移除时移除
+     */
+    private void attachPrefetcher(final RecyclerView recyclerView) {
+        if (prefetchRows <= 0 || prefetchers.containsKey(recyclerView))
+            return;
+        final GalleryPrefetcher prefetcher = GalleryPrefetcher.attach(this, recyclerView, prefetchRows);
+        prefetchers.put(recyclerView, prefetcher);
+        if (prefetcher == null)
+            return;
+        recyclerView.addOnAttachStateChangeListener(new View.OnAttachStateChangeListener() {
+            @Override
+            public void onViewAttachedToWindow(View v) {
+            }
+            @Override
+            public void onViewDetachedFromWindow(View v) {
+                prefetcher.detach(recyclerView);
+                prefetchers.remove(recyclerView);
+                recyclerView.removeOnAttachStateChangeListener(this);
+            }
+        });
+    }
+
+    /**
+     * 列表图片的解码格式。
+     * rgb565：不透明图片使用 RGB_565，内存减半；argb8888：ARGB_8888 且不使用硬件位图；
+     * 其他：使用 Glide 默认格式（Android O 以上允许时使用硬件位图）
+     */
+    <T> RequestBuilder<T> applyThumbnailFormat(RequestBuilder<T> builder) {
+        if ("rgb565".equals(thumbnailDecodeFormat))
+            return builder.format(DecodeFormat.PREFER_RGB_565);
+        if ("argb8888".equals(thumbnailDecodeFormat))
+            return builder.format(DecodeFormat.PREFER_ARGB_8888).disallowHardwareConfig();
+        return builder;
+    }
+
     @Override
     public void pauseRequests(Context context) {
-        Glide.with(context).pauseRequests();
+        selectorPaused = true;
+        updatePaused(context);
     }
 
     @Override
     public void resumeRequests(Context context) {
-        Glide.with(context).resumeRequests();
+        selectorPaused = false;
+        updatePaused(context);
     }
 
-    private GlideEngine() {
+    /**
+     * 快速滑动时暂停加载，与 PictureSelector 自身的暂停共同决定是否暂停
+     */
+    void setFlingPaused(Context context, boolean paused) {
+        if (flingPaused != paused) {
+            flingPaused = paused;
+            updatePaused(context);
+        }
+    }
+    boolean isFlingPaused() {
+        return flingPaused;
     }
 
-    private static final class InstanceHolder {
-        static final GlideEngine instance = new GlideEngine();
+    private void updatePaused(Context context) {
+        if (!ActivityCompatHelper.assertValidRequest(context))
+            return;
+        if (selectorPaused || flingPaused)
+            Glide.with(context).pauseRequests();
+        else
+            Glide.with(context).resumeRequests();
     }
 
-    public static GlideEngine createGlideEngine() {
-        return InstanceHolder.instance;
+    private GlideEngine(int spanCount, String thumbnailDecodeFormat, int prefetchRows) {
+        this.spanCount = spanCount > 0 ? spanCount : DEFAULT_SPAN_COUNT;
+        this.thumbnailDecodeFormat = thumbnailDecodeFormat;
+        this.prefetchRows = prefetchRows;
+    }
+
+    /**
+     * 创建指定列数和列表图片解码格式的加载引擎
+     * @param spanCount             列表列数，小于等于0使用默认值
+     * @param thumbnailDecodeFormat 列表图片解码格式：rgb565、argb8888、hardware，为空时使用 rgb565
+     * @param prefetchRows          滚动时向前预加载的行数，小于0使用默认值，0表示不预加载
+     */
+    public static GlideEngine createGlideEngine(int spanCount, String thumbnailDecodeFormat, int prefetchRows) {
+        return new GlideEngine(spanCount, thumbnailDecodeFormat == null ? "rgb565" : thumbnailDecodeFormat,
+                prefetchRows < 0 ? DEFAULT_PREFETCH_ROWS : prefetchRows);
     }
 }
\ No newline at end of file
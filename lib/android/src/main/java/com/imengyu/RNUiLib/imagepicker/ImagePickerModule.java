@@ -1,10 +1,13 @@
 package com.imengyu.RNUiLib.imagepicker;
 
+import android.app.Activity;
+import android.app.Application;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.Color;
 import android.graphics.drawable.Drawable;
 import android.net.Uri;
+import android.os.Bundle;
 import android.widget.ImageView;
 
 import androidx.annotation.Keep;
@@ -13,6 +16,7 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.MemoryCategory;
 import com.bumptech.glide.request.target.CustomTarget;
 import com.bumptech.glide.request.transition.Transition;
 import com.facebook.react.bridge.Callback;
@@ -21,6 +25,7 @@ import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.UiThreadUtil;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.bridge.WritableNativeArray;
@@ -41,7 +46,11 @@ import com.yalantis.ucrop.UCrop;
 import com.yalantis.ucrop.UCropImageEngine;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ImagePickerModule extends ReactContextBaseJavaModule {
 
@@ -57,26 +66,173 @@ public class ImagePickerModule extends ReactContextBaseJavaModule {
     reactContext = context;
   }
 
-  private ReadableArray javaLocalMediaToJsArray(ArrayList<LocalMedia> result) {
+  /**
+   * 设置选择相册期间 Glide 内存缓存的大小
+   * @param category low：0.5倍，high：1.5倍，其他：默认
+   */
+  private void setGlideMemoryCategory(String category) {
+    final MemoryCategory memoryCategory;
+    if ("low".equals(category))
+      memoryCategory = MemoryCategory.LOW;
+    else if ("high".equals(category))
+      memoryCategory = MemoryCategory.HIGH;
+    else
+      memoryCategory = MemoryCategory.NORMAL;
+    UiThreadUtil.runOnUiThread(() -> Glide.get(reactContext).setMemoryCategory(memoryCategory));
+  }
+
+  /**
+   * 选择相册期间修改 Glide 内存缓存大小，结束后恢复默认。
+   * 除了选择结果回调，PictureSelector 的 Activity 结束时也会恢复，
+   * 避免相册没有回调就关闭时一直保持修改后的大小。
+   */
+  private class GlideMemoryCategoryScope implements Application.ActivityLifecycleCallbacks {
+    private final AtomicBoolean released = new AtomicBoolean(false);
+    private final Application application;
+
+    GlideMemoryCategoryScope(String category) {
+      application = (Application) reactContext.getApplicationContext();
+      application.registerActivityLifecycleCallbacks(this);
+      setGlideMemoryCategory(category);
+    }
+
+    void release() {
+      if (released.compareAndSet(false, true)) {
+        application.unregisterActivityLifecycleCallbacks(this);
+        setGlideMemoryCategory(null);
+      }
+    }
+
+    @Override
+    public void onActivityDestroyed(@NonNull Activity activity) {
+      if (activity.isFinishing() && activity.getClass().getName().startsWith("com.luck.picture.lib."))
+        release();
+    }
+    @Override
+    public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {}
+    @Override
+    public void onActivityStarted(@NonNull Activity activity) {}
+    @Override
+    public void onActivityResumed(@NonNull Activity activity) {}
+    @Override
+    public void onActivityPaused(@NonNull Activity activity) {}
+    @Override
+    public void onActivityStopped(@NonNull Activity activity) {}
+    @Override
+    public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {}
+  }
+
+  /**
+   * 返回给 JS 的全部字段
+   */
+  private static final String[] ALL_FIELDS = {
+    "id", "bucketId", "path", "contentPath", "originalPath", "mimeType",
+    "videoThumbnailPath", "duration", "width", "height", "size",
+  };
+  /**
+   * 选择数量达到该值时使用按列的格式返回，默认不使用
+   */
+  private static final int DEFAULT_COLUMNAR_THRESHOLD = 0;
+  private static final ExecutorService resultExecutor = Executors.newSingleThreadExecutor();
+
+  /**
+   * 读取需要返回的字段，options.fields 未设置时返回全部字段。
+   * 在打开选择器之前调用，包含不支持的字段时抛出异常
+   */
+  private static String[] readResultFields(ReadableMap options) {
+    if (!options.hasKey("fields"))
+      return ALL_FIELDS;
+    ReadableArray array = options.getArray("fields");
+    if (array == null || array.size() == 0)
+      return ALL_FIELDS;
+    List<String> allFields = Arrays.asList(ALL_FIELDS);
+    String[] fields = new String[array.size()];
+    for (int i = 0; i < fields.length; i++) {
+      fields[i] = array.getString(i);
+      if (!allFields.contains(fields[i]))
+        throw new IllegalArgumentException("Unknown image picker result field: " + fields[i]);
+    }
+    return fields;
+  }
+
+  private static int readColumnarThreshold(ReadableMap options) {
+    return options.hasKey("columnarThreshold") ? options.getInt("columnarThreshold") : DEFAULT_COLUMNAR_THRESHOLD;
+  }
+
+  /**
+   * 在后台线程中把选择结果转换为 JS 数据后回调
+   * @param fields            需要返回的字段
+   * @param columnarThreshold 选择数量达到该值时按列返回，0 表示不使用
+   */
+  private void invokeResult(ArrayList<LocalMedia> result, final String[] fields, final int columnarThreshold, Callback callback) {
+    resultExecutor.execute(() -> {
+      if (columnarThreshold > 0 && result.size() >= columnarThreshold)
+        callback.invoke(javaLocalMediaToJsColumns(result, fields));
+      else
+        callback.invoke(javaLocalMediaToJsArray(result, fields));
+    });
+  }
+
+  private static ReadableArray javaLocalMediaToJsArray(ArrayList<LocalMedia> result, String[] fields) {
     WritableArray array = new WritableNativeArray();
     for (LocalMedia m : result) {
       WritableMap map = new WritableNativeMap();
-      map.putDouble("id", m.getId());
-      map.putDouble("bucketId", m.getBucketId());
-      map.putString("path", m.getAvailablePath());
-      map.putString("contentPath", m.getPath());
-      map.putString("originalPath", m.getOriginalPath());
-      map.putString("mimeType", m.getMimeType());
-      map.putString("videoThumbnailPath", m.getVideoThumbnailPath());
-      map.putDouble("duration", m.getDuration());
-      map.putDouble("width", m.getWidth());
-      map.putDouble("height", m.getHeight());
-      map.putDouble("size", m.getSize());
+      for (String field : fields)
+        putMediaField(map, field, m);
       array.pushMap(map);
     }
     return array;
   }
 
+  /**
+   * 按列的格式：{ count: number, columns: { 字段名: 每一项的值数组 } }，
+   * 只需要为每个字段创建一个数组，不需要为每一项创建一个对象
+   */
+  private static ReadableMap javaLocalMediaToJsColumns(ArrayList<LocalMedia> result, String[] fields) {
+    WritableMap columns = new WritableNativeMap();
+    for (String field : fields) {
+      WritableArray column = new WritableNativeArray();
+      for (LocalMedia m : result)
+        pushMediaField(column, field, m);
+      columns.putArray(field, column);
+    }
+    WritableMap map = new WritableNativeMap();
+    map.putInt("count", result.size());
+    map.putMap("columns", columns);
+    return map;
+  }
+
+  private static void putMediaField(WritableMap map, String field, LocalMedia m) {
+    switch (field) {
+      case "id": map.putDouble(field, m.getId()); break;
+      case "bucketId": map.putDouble(field, m.getBucketId()); break;
+      case "path": map.putString(field, m.getAvailablePath()); break;
+      case "contentPath": map.putString(field, m.getPath()); break;
+      case "originalPath": map.putString(field, m.getOriginalPath()); break;
+      case "mimeType": map.putString(field, m.getMimeType()); break;
+      case "videoThumbnailPath": map.putString(field, m.getVideoThumbnailPath()); break;
+      case "duration": map.putDouble(field, m.getDuration()); break;
+      case "width": map.putDouble(field, m.getWidth()); break;
+      case "height": map.putDouble(field, m.getHeight()); break;
+      case "size": map.putDouble(field, m.getSize()); break;
+    }
+  }
+  private static void pushMediaField(WritableArray array, String field, LocalMedia m) {
+    switch (field) {
+      case "id": array.pushDouble(m.getId()); break;
+      case "bucketId": array.pushDouble(m.getBucketId()); break;
+      case "path": array.pushString(m.getAvailablePath()); break;
+      case "contentPath": array.pushString(m.getPath()); break;
+      case "originalPath": array.pushString(m.getOriginalPath()); break;
+      case "mimeType": array.pushString(m.getMimeType()); break;
+      case "videoThumbnailPath": array.pushString(m.getVideoThumbnailPath()); break;
+      case "duration": array.pushDouble(m.getDuration()); break;
+      case "width": array.pushDouble(m.getWidth()); break;
+      case "height": array.pushDouble(m.getHeight()); break;
+      case "size": array.pushDouble(m.getSize()); break;
+    }
+  }
+
   /**
    * 选择相机拍照
    */
@@ -84,6 +240,8 @@ public class ImagePickerModule extends ReactContextBaseJavaModule {
   @ReactMethod
   public void camera(ReadableMap options, Callback callback, Callback cancelCallback) {
 
+    final String[] fields = readResultFields(options);
+    final int columnarThreshold = readColumnarThreshold(options);
     String type = options.getString("type");
 
     int chooseMode = 0;
@@ -139,7 +297,7 @@ public class ImagePickerModule extends ReactContextBaseJavaModule {
     model.forResult(new OnResultCallbackListener<LocalMedia>() {
       @Override
       public void onResult(ArrayList<LocalMedia> result) {
-        callback.invoke(javaLocalMediaToJsArray(result));
+        invokeResult(result, fields, columnarThreshold, callback);
       }
       @Override
       public void onCancel() {
@@ -154,6 +312,22 @@ public class ImagePickerModule extends ReactContextBaseJavaModule {
   @Keep
   @ReactMethod
   public void pick(ReadableMap options, Callback callback, Callback cancelCallback) {
+    //先检查参数，参数错误时不打开相册也不修改内存缓存设置
+    final String[] fields = readResultFields(options);
+    final int columnarThreshold = readColumnarThreshold(options);
+    final GlideMemoryCategoryScope memoryScope = options.hasKey("memoryCategory")
+      ? new GlideMemoryCategoryScope(options.getString("memoryCategory")) : null;
+    try {
+      pickInternal(options, fields, columnarThreshold, callback, cancelCallback, memoryScope);
+    } catch (RuntimeException e) {
+      //没有成功打开相册时（例如当前没有 Activity）立即恢复
+      if (memoryScope != null)
+        memoryScope.release();
+      throw e;
+    }
+  }
+  private void pickInternal(ReadableMap options, final String[] fields, final int columnarThreshold,
+                            Callback callback, Callback cancelCallback, final GlideMemoryCategoryScope memoryScope) {
 
     String type = options.getString("type");
 
@@ -189,9 +363,13 @@ public class ImagePickerModule extends ReactContextBaseJavaModule {
     if (options.hasKey("maxVideoSelectNum"))
       maxVideoSelectNum = options.getInt("maxVideoSelectNum");
 
+    int imageSpanCount = options.hasKey("imageSpanCount") ? options.getInt("imageSpanCount") : 0;
+    String thumbnailDecodeFormat = options.hasKey("thumbnailDecodeFormat") ? options.getString("thumbnailDecodeFormat") : null;
+    int prefetchRows = options.hasKey("prefetchRows") ? options.getInt("prefetchRows") : -1;
+
     PictureSelectionModel model = PictureSelector.create(getCurrentActivity()).openGallery(chooseMode);
 
-    model.setImageEngine(GlideEngine.createGlideEngine())
+    model.setImageEngine(GlideEngine.createGlideEngine(imageSpanCount, thumbnailDecodeFormat, prefetchRows))
     .setMinSelectNum(minSelectNum)
     .setMaxSelectNum(maxSelectNum)
     .setMaxVideoSelectNum(maxVideoSelectNum)
@@ -254,10 +432,14 @@ public class ImagePickerModule extends ReactContextBaseJavaModule {
     model.forResult(new OnResultCallbackListener<LocalMedia>() {
       @Override
       public void onResult(ArrayList<LocalMedia> result) {
-        callback.invoke(javaLocalMediaToJsArray(result));
+        if (memoryScope != null)
+          memoryScope.release();
+        invokeResult(result, fields, columnarThreshold, callback);
       }
       @Override
       public void onCancel() {
+        if (memoryScope != null)
+          memoryScope.release();
         cancelCallback.invoke();
       }
     });
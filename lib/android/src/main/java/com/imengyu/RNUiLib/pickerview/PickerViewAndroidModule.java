@@ -5,21 +5,27 @@ import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
 
+import com.imengyu.RNUiLib.pickerview.adapter.LinkageTree;
 import com.imengyu.RNUiLib.pickerview.builder.OptionsPickerBuilder;
 import com.imengyu.RNUiLib.pickerview.builder.TimePickerBuilder;
 import com.imengyu.RNUiLib.pickerview.view.OptionsPickerView;
 import com.imengyu.RNUiLib.pickerview.view.TimePickerView;
 import com.imengyu.RNUiLib.whellview.view.WheelView;
+import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.uimanager.UIManagerModule;
 
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -257,6 +263,10 @@ public class PickerViewAndroidModule extends ReactContextBaseJavaModule {
    *                     any[][],
    *                     any[][][],
    *                  ], //联动数据
+   *                  treePicker?: {
+   *                    label: string,
+   *                    children?: ...,
+   *                  }[], //N级联动数据，选择回调会返回所有列选中项的数组
    *                  selectOptions?: number[],
    *                  outSideCancelable?: boolean,
    *                  dividerType?: 'FILL'|'WARP'|'CIRCLE',
@@ -291,6 +301,14 @@ public class PickerViewAndroidModule extends ReactContextBaseJavaModule {
       canNextDialogCallDismiss = false;
     });
 
+    if(options.hasKey("treePicker")) {
+      optionsPickerBuilder.setOptionsTreeSelectListener((selected, v) -> {
+        if (callback != null)
+          callback.invoke(Arguments.fromArray(selected));
+        canNextDialogCallDismiss = false;
+      });
+    }
+
     canNextDialogCallDismiss = true;
     if(options.hasKey("textXOffset")) {
       ReadableMap textXOffset = options.getMap("textXOffset");
@@ -358,8 +376,17 @@ public class PickerViewAndroidModule extends ReactContextBaseJavaModule {
     OptionsPickerView<String> pv = optionsPickerBuilder.build();
 
 
+    //N级联动数据
+    boolean isTreePicker = false;
+    if(options.hasKey("treePicker")) {
+      ReadableArray treePicker = options.getArray("treePicker");
+      if(treePicker != null) {
+        pv.setTreePicker(buildLinkageTree(treePicker));
+        isTreePicker = true;
+      }
+    }
     //不连动数据
-    if(options.hasKey("nPicker")) {
+    else if(options.hasKey("nPicker")) {
       ReadableArray nPicker = options.getArray("nPicker");
       if(nPicker != null) {
 
@@ -449,7 +476,7 @@ public class PickerViewAndroidModule extends ReactContextBaseJavaModule {
     if(options.hasKey("selectOptions")) {
       ReadableArray selecta = options.getArray("selectOptions");
       if(selecta != null) {
-        for (int i = 0; i < 3 && i < selecta.size(); i++)
+        for (int i = 0; (isTreePicker || i < 3) && i < selecta.size(); i++)
           if(!selecta.isNull(i)) select.add(selecta.getInt(i));
       }
     }
@@ -461,10 +488,17 @@ public class PickerViewAndroidModule extends ReactContextBaseJavaModule {
     });
 
     //显示
+    final boolean finalIsTreePicker = isTreePicker;
     Objects.requireNonNull(reactContext.getCurrentActivity()).runOnUiThread(() -> {
       pv.show();
 
-      if(select.size() == 1)
+      if(finalIsTreePicker) {
+        int[] treeSelect = new int[select.size()];
+        for (int i = 0; i < treeSelect.length; i++)
+          treeSelect[i] = select.get(i);
+        pv.setTreeSelectOptions(treeSelect);
+      }
+      else if(select.size() == 1)
         pv.setSelectOptions(select.get(0));
       else if(select.size() == 2)
         pv.setSelectOptions(select.get(0), select.get(1));
@@ -473,5 +507,55 @@ public class PickerViewAndroidModule extends ReactContextBaseJavaModule {
     });
   }
 
-}
+  /**
+   * 在滚轮控件（RCTPickerWheelView）的数据中按前缀查找条目
+   * @param viewTag 滚轮控件的 tag
+   * @param query 查询文字
+   * @param promise 返回条目索引，没有匹配返回 -1
+   */
+  @ReactMethod
+  public void findWheelItemIndex(int viewTag, String query, Promise promise) {
+    UIManagerModule uiManager = reactContext.getNativeModule(UIManagerModule.class);
+    if (uiManager == null) {
+      promise.reject("NO_UI_MANAGER", "UIManagerModule not available");
+      return;
+    }
+    uiManager.addUIBlock(nativeViewHierarchyManager -> {
+      try {
+        WheelView wheelView = (WheelView) nativeViewHierarchyManager.resolveView(viewTag);
+        promise.resolve(wheelView.findItem(query));
+      } catch (Exception e) {
+        promise.reject("FIND_FAILED", e);
+      }
+    });
+  }
+
+  /**
+   * 把JS传过来的树形数据按层序转换为联动树，同一父节点的子节点在树中连续存放
+   * @param items 第一列的数据 { label: string, children?: [] }[]
+   * @return 联动树
+   */
+  private static LinkageTree buildLinkageTree(ReadableArray items) {
+    LinkageTree.Builder builder = new LinkageTree.Builder();
+    Deque<ReadableArray> childrenQueue = new ArrayDeque<>();
+    Deque<Integer> parentQueue = new ArrayDeque<>();
+    childrenQueue.add(items);
+    parentQueue.add(LinkageTree.ROOT);
 
+    while (!childrenQueue.isEmpty()) {
+      ReadableArray children = childrenQueue.poll();
+      int parent = parentQueue.poll();
+      for (int i = 0; i < children.size(); i++) {
+        if (children.isNull(i))
+          continue;
+        ReadableMap item = children.getMap(i);
+        int node = builder.addNode(parent, item.hasKey("label") ? item.getString("label") : "");
+        if (item.hasKey("children") && !item.isNull("children")) {
+          childrenQueue.add(item.getArray("children"));
+          parentQueue.add(node);
+        }
+      }
+    }
+    return builder.build();
+  }
+}
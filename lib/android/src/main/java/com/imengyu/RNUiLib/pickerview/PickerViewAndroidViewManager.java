@@ -2,14 +2,16 @@ package com.imengyu.RNUiLib.pickerview;
 
 import android.graphics.Color;
 import android.view.Gravity;
+import android.view.View;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import com.imengyu.RNUiLib.smartrefresh.smartrefreshlayout.ReactSmartRefreshLayout;
+import com.imengyu.RNUiLib.R;
 import com.imengyu.RNUiLib.whellview.adapter.ArrayWheelAdapter;
 import com.imengyu.RNUiLib.whellview.view.WheelView;
 import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.WritableMap;
@@ -19,8 +21,10 @@ import com.facebook.react.uimanager.ThemedReactContext;
 import com.facebook.react.uimanager.annotations.ReactProp;
 import com.facebook.react.uimanager.events.RCTEventEmitter;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -28,11 +32,14 @@ public class PickerViewAndroidViewManager extends SimpleViewManager<WheelView> {
   public static final String REACT_CLASS = "RCTPickerWheelView";
 
   private final int COMMAND_SET_CURRENT_INDEX = 1;
+  private final int COMMAND_SCROLL_TO_MATCH = 2;
+  private final int COMMAND_SCROLL_TO_INDEX = 3;
   
   ReactApplicationContext mCallerContext;
 
   public PickerViewAndroidViewManager(ReactApplicationContext reactContext) {
     mCallerContext = reactContext;
+    mCallerContext.addLifecycleEventListener(mLifecycleEventListener);
   }
   @Override
   public Map<String, Object> getConstants() {
@@ -51,7 +58,9 @@ public class PickerViewAndroidViewManager extends SimpleViewManager<WheelView> {
   @Override
   public Map<String, Integer> getCommandsMap() {
     return MapBuilder.of(
-            "setCurrentIndex", COMMAND_SET_CURRENT_INDEX
+            "setCurrentIndex", COMMAND_SET_CURRENT_INDEX,
+            "scrollToMatch", COMMAND_SCROLL_TO_MATCH,
+            "scrollToIndex", COMMAND_SCROLL_TO_INDEX
     );
   }
   
@@ -60,6 +69,18 @@ public class PickerViewAndroidViewManager extends SimpleViewManager<WheelView> {
     if (args != null && commandId.equals(String.valueOf(COMMAND_SET_CURRENT_INDEX))) {
       int index = args.getInt(0);
       root.setCurrentItem(index);
+    } else if (args != null && commandId.equals(String.valueOf(COMMAND_SCROLL_TO_MATCH))) {
+      //按前缀查找条目并选中
+      int index = root.findItem(args.getString(0));
+      if (index >= 0) {
+        root.setCurrentItem(index);
+        root.onItemSelected();
+      }
+    } else if (args != null && commandId.equals(String.valueOf(COMMAND_SCROLL_TO_INDEX))) {
+      //带动画滚动到指定条目，结束后触发 onItemSelected
+      int index = args.getInt(0);
+      int durationMs = args.size() > 1 ? args.getInt(1) : 300;
+      root.scrollToIndex(index, durationMs);
     }
     super.receiveCommand(root, commandId, args);
   }
@@ -78,43 +99,102 @@ public class PickerViewAndroidViewManager extends SimpleViewManager<WheelView> {
             .build();
   }
 
-  private int id = 0;
+  /**
+   * 单个滚轮控件的状态
+   */
+  private static final class WheelViewState {
+    final List<String> items = new ArrayList<>();
+    final ArrayWheelAdapter<String> adapter = new ArrayWheelAdapter<>(items);
+  }
+
+  //已卸载、可以复用的控件
+  private static final int MAX_RECYCLED_VIEWS = 10;
+  private final ArrayDeque<WheelView> recycledViews = new ArrayDeque<>();
+
+  //复用池中的控件持有 ThemedReactContext（包装了 Activity），Activity 销毁时清空，避免持有已销毁的 Activity
+  private final LifecycleEventListener mLifecycleEventListener = new LifecycleEventListener() {
+    @Override
+    public void onHostResume() {
+    }
+    @Override
+    public void onHostPause() {
+    }
+    @Override
+    public void onHostDestroy() {
+      recycledViews.clear();
+    }
+  };
+
+  private static WheelViewState getState(WheelView view) {
+    WheelViewState state = (WheelViewState) view.getTag(R.id.pickerview_wheel_state);
+    if (state == null) {
+      state = new WheelViewState();
+      view.setTag(R.id.pickerview_wheel_state, state);
+    }
+    return state;
+  }
+
+  /**
+   * 从复用池中取出同一个 context 下的控件，其他 context 的控件已无法使用，直接丢弃
+   */
+  @Nullable
+  private WheelView obtainRecycledView(ThemedReactContext reactContext) {
+    Iterator<WheelView> iterator = recycledViews.iterator();
+    while (iterator.hasNext()) {
+      WheelView view = iterator.next();
+      iterator.remove();
+      if (view.getContext() == reactContext)
+        return view;
+    }
+    return null;
+  }
 
   @NonNull
   @Override
   protected WheelView createViewInstance(@NonNull ThemedReactContext reactContext) {
     RCTEventEmitter eventEmitter = reactContext.getJSModule(RCTEventEmitter.class);
 
-    WheelView wheelView = new WheelView(reactContext);
+    WheelView wheelView = obtainRecycledView(reactContext);
+    if (wheelView == null)
+      wheelView = new WheelView(reactContext);
+    final WheelView finalWheelView = wheelView;
     wheelView.setAlphaGradient(true);
     wheelView.setCyclic(false);
     wheelView.setTextColorCenter(Color.BLACK);
     wheelView.setOnItemSelectedListener(index -> {
       WritableMap event = Arguments.createMap();
       event.putInt("index", index);
-      eventEmitter.receiveEvent(wheelView.getId(),"onItemSelected", event);
+      eventEmitter.receiveEvent(finalWheelView.getId(),"onItemSelected", event);
     });
     wheelView.setMinimumHeight(100);
     return wheelView;
   }
 
-  private final Map<Integer,List<String>> optionsMap = new HashMap<>();
-
   @Override
   public void onDropViewInstance(@NonNull WheelView view) {
     super.onDropViewInstance(view);
-    optionsMap.remove(view.getId());
+    //停止动画并重置后放入复用池
+    view.reset();
+    getState(view).items.clear();
+    if (view.getParent() == null && recycledViews.size() < MAX_RECYCLED_VIEWS) {
+      view.setAlpha(1);
+      view.setTranslationX(0);
+      view.setTranslationY(0);
+      view.setScaleX(1);
+      view.setScaleY(1);
+      view.setRotation(0);
+      view.setVisibility(View.VISIBLE);
+      view.setBackground(null);
+      recycledViews.push(view);
+    }
   }
 
   @ReactProp(name = "options")
   public void setOptions(WheelView view, @Nullable ReadableArray sources) {
-    List<String> mOptionsItems = optionsMap.get(view.getId());
-    if (mOptionsItems == null) {
-      mOptionsItems = new ArrayList<>();
-      ArrayWheelAdapter<String> adapter = new ArrayWheelAdapter<>(mOptionsItems);
-      optionsMap.put(view.getId(), mOptionsItems);
-      view.setAdapter(adapter);
-    }
+    WheelViewState state = getState(view);
+    List<String> mOptionsItems = state.items;
+    if (view.getAdapter() != state.adapter)
+      view.setAdapter(state.adapter);
     if (sources == null) {
       mOptionsItems.clear();
     } else {
@@ -122,7 +202,7 @@ public class PickerViewAndroidViewManager extends SimpleViewManager<WheelView> {
       for (int i = 0; i < sources.size(); i++)
         mOptionsItems.add(sources.getString(i));
     }
-    view.invalidate();
+    view.notifyDataSetChanged();
   }
 
   @ReactProp(name = "alphaGradient", defaultBoolean = true)
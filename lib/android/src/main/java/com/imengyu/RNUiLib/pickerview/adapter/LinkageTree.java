@@ -0,0 +1,138 @@
+package com.imengyu.RNUiLib.pickerview.adapter;
+
+import java.util.Arrays;
+
+/**
+ * 多级联动数据的紧凑索引树
+ * 所有节点按层序存放在几个平铺数组中，同一父节点的子节点在数组中是连续的，
+ * 因此任意一列的数据都可以用 (起始位置, 数量) 表示，联动切换时不需要重建列表。
+ */
+public class LinkageTree {
+
+    /**
+     * 虚拟根节点，它的子节点就是第一列的数据
+     */
+    public static final int ROOT = -1;
+
+    private final String[] labels;
+    private final int[] parents;
+    private final int[] childStarts;
+    private final int[] childCounts;
+    private final int rootCount;
+    private final int depth;
+
+    private LinkageTree(Builder builder) {
+        int size = builder.size;
+        labels = Arrays.copyOf(builder.labels, size);
+        parents = Arrays.copyOf(builder.parents, size);
+        childStarts = Arrays.copyOf(builder.childStarts, size);
+        childCounts = Arrays.copyOf(builder.childCounts, size);
+        rootCount = builder.rootCount;
+        depth = builder.depth;
+    }
+
+    /**
+     * 获取节点总数
+     */
+    public int size() {
+        return labels.length;
+    }
+
+    /**
+     * 获取树的层数，也就是需要显示的列数
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    public String getLabel(int node) {
+        return labels[node];
+    }
+
+    public int getParent(int node) {
+        return parents[node];
+    }
+
+    /**
+     * 获取子节点在数组中的起始位置
+     *
+     * @param node 节点，{@link #ROOT} 表示第一列
+     */
+    public int getChildStart(int node) {
+        return node == ROOT ? 0 : childStarts[node];
+    }
+
+    /**
+     * 获取子节点数量
+     *
+     * @param node 节点，{@link #ROOT} 表示第一列
+     */
+    public int getChildCount(int node) {
+        return node == ROOT ? rootCount : childCounts[node];
+    }
+
+    /**
+     * 按层序构建联动树。
+     * 节点必须按层序添加：父节点先于子节点，同一父节点的子节点连续添加。
+     */
+    public static class Builder {
+
+        private String[] labels = new String[16];
+        private int[] parents = new int[16];
+        private int[] childStarts = new int[16];
+        private int[] childCounts = new int[16];
+        private int[] depths = new int[16];
+        private int size = 0;
+        private int rootCount = 0;
+        private int depth = 0;
+
+        /**
+         * 添加一个节点
+         *
+         * @param parent 父节点，第一列的节点传 {@link #ROOT}
+         * @param label  显示文字
+         * @return 新节点的索引
+         */
+        public int addNode(int parent, String label) {
+            if (parent < ROOT || parent >= size)
+                throw new IllegalArgumentException("Parent node " + parent + " does not exist");
+            int start = parent == ROOT ? 0 : childStarts[parent];
+            int count = parent == ROOT ? rootCount : childCounts[parent];
+            if (count > 0 && start + count != size)
+                throw new IllegalArgumentException("Children of node " + parent + " must be added contiguously");
+
+            ensureCapacity(size + 1);
+            int node = size++;
+            labels[node] = label == null ? "" : label;
+            parents[node] = parent;
+            childStarts[node] = 0;
+            childCounts[node] = 0;
+            depths[node] = parent == ROOT ? 1 : depths[parent] + 1;
+            depth = Math.max(depth, depths[node]);
+
+            if (parent == ROOT) {
+                rootCount++;
+            } else {
+                if (count == 0)
+                    childStarts[parent] = node;
+                childCounts[parent]++;
+            }
+            return node;
+        }
+
+        public LinkageTree build() {
+            return new LinkageTree(this);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= labels.length)
+                return;
+            int newCapacity = Math.max(capacity, labels.length * 2);
+            labels = Arrays.copyOf(labels, newCapacity);
+            parents = Arrays.copyOf(parents, newCapacity);
+            childStarts = Arrays.copyOf(childStarts, newCapacity);
+            childCounts = Arrays.copyOf(childCounts, newCapacity);
+            depths = Arrays.copyOf(depths, newCapacity);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.imengyu.RNUiLib.pickerview.adapter;
+
+import com.imengyu.RNUiLib.whellview.adapter.WheelAdapter;
+
+/**
+ * 联动树中某一列的适配器
+ * 只保存当前父节点子列表的 (起始位置, 数量)，切换父节点不会复制数据。
+ */
+public class LinkageTreeWheelAdapter implements WheelAdapter {
+
+	private final LinkageTree tree;
+	private int start = 0;
+	private int count = 0;
+
+	public LinkageTreeWheelAdapter(LinkageTree tree) {
+		this.tree = tree;
+	}
+
+	/**
+	 * 切换当前列显示的父节点
+	 * @param parent 父节点，{@link LinkageTree#ROOT} 表示第一列，小于 ROOT 表示该列无数据
+	 */
+	public void setParent(int parent) {
+		if (parent < LinkageTree.ROOT) {
+			start = 0;
+			count = 0;
+		} else {
+			start = tree.getChildStart(parent);
+			count = tree.getChildCount(parent);
+		}
+	}
+
+	/**
+	 * 获取当前列中某一项对应的树节点
+	 * @param index 项的索引
+	 * @return 节点索引，越界时返回 ROOT - 1
+	 */
+	public int getNode(int index) {
+		if (index >= 0 && index < count) {
+			return start + index;
+		}
+		return LinkageTree.ROOT - 1;
+	}
+
+	@Override
+	public Object getItem(int index) {
+		if (index >= 0 && index < count) {
+			return tree.getLabel(start + index);
+		}
+		return "";
+	}
+
+	@Override
+	public int getItemsCount() {
+		return count;
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		for (int i = 0; i < count; i++) {
+			if (tree.getLabel(start + i).equals(o))
+				return i;
+		}
+		return -1;
+	}
+}
@@ -10,6 +10,7 @@ import com.imengyu.RNUiLib.pickerview.configure.PickerOptions;
 import com.imengyu.RNUiLib.pickerview.listener.CustomListener;
 import com.imengyu.RNUiLib.pickerview.listener.OnOptionsSelectChangeListener;
 import com.imengyu.RNUiLib.pickerview.listener.OnOptionsSelectListener;
+import com.imengyu.RNUiLib.pickerview.listener.OnOptionsTreeSelectListener;
 import com.imengyu.RNUiLib.pickerview.view.OptionsPickerView;
 import com.imengyu.RNUiLib.whellview.view.WheelView;
 
@@ -284,6 +285,14 @@ public class OptionsPickerBuilder {
         return this;
     }
 
+    /**
+     * @param listener N级联动数据确定时的回调，返回所有列的选中项
+     * @return
+     */
+    public OptionsPickerBuilder setOptionsTreeSelectListener(OnOptionsTreeSelectListener listener) {
+        mPickerOptions.optionsTreeSelectListener = listener;
+        return this;
+    }
 
     public <T> OptionsPickerView<T> build() {
         return new OptionsPickerView<>(mPickerOptions);
@@ -10,6 +10,7 @@ import com.imengyu.RNUiLib.R;
 import com.imengyu.RNUiLib.pickerview.listener.CustomListener;
 import com.imengyu.RNUiLib.pickerview.listener.OnOptionsSelectChangeListener;
 import com.imengyu.RNUiLib.pickerview.listener.OnOptionsSelectListener;
+import com.imengyu.RNUiLib.pickerview.listener.OnOptionsTreeSelectListener;
 import com.imengyu.RNUiLib.pickerview.listener.OnTimeSelectChangeListener;
 import com.imengyu.RNUiLib.pickerview.listener.OnTimeSelectListener;
 import com.imengyu.RNUiLib.whellview.view.WheelView;
@@ -34,6 +35,7 @@ public class PickerOptions {
 
     public OnOptionsSelectListener optionsSelectListener;
     public OnTimeSelectListener timeSelectListener;
+    public OnOptionsTreeSelectListener optionsTreeSelectListener;
     public View.OnClickListener cancelListener;
 
     public OnTimeSelectChangeListener timeSelectChangeListener;
@@ -43,6 +45,7 @@ public class PickerOptions {
     //options picker
     public String label1, label2, label3;//单位字符
     public int option1, option2, option3;//默认选中项
+    public int[] treeOptions;//N级联动时的默认选中项
     public int x_offset_one, x_offset_two, x_offset_three;//x轴偏移量
 
     public boolean cyclic1 = false;//是否循环，默认否
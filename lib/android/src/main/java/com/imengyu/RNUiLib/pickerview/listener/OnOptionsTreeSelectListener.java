@@ -0,0 +1,13 @@
+package com.imengyu.RNUiLib.pickerview.listener;
+
+import android.view.View;
+
+/**
+ * N级联动数据的选择回调
+ */
+
+public interface OnOptionsTreeSelectListener {
+
+    void onOptionsSelect(int[] options, View v);
+
+}
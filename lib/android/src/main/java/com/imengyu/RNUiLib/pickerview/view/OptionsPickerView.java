@@ -10,6 +10,7 @@ import android.widget.RelativeLayout;
 import android.widget.TextView;
 
 import com.imengyu.RNUiLib.R;
+import com.imengyu.RNUiLib.pickerview.adapter.LinkageTree;
 import com.imengyu.RNUiLib.pickerview.configure.PickerOptions;
 
 import java.util.List;
@@ -81,6 +82,14 @@ public class OptionsPickerView<T> extends BasePickerView implements View.OnClick
             wheelOptions.setOptionsSelectChangeListener(mPickerOptions.optionsSelectChangeListener);
         }
 
+        applyWheelStyle();
+        setOutSideCancelable(mPickerOptions.cancelable);
+    }
+
+    /**
+     * 把样式应用到所有列上，列数变化后需要重新调用
+     */
+    private void applyWheelStyle() {
         wheelOptions.setTextContentSize(mPickerOptions.textSizeContent);
         wheelOptions.setItemsVisible(mPickerOptions.itemsVisibleCount);
         wheelOptions.setAlphaGradient(mPickerOptions.isAlphaGradient);
@@ -89,8 +98,6 @@ public class OptionsPickerView<T> extends BasePickerView implements View.OnClick
         wheelOptions.setCyclic(mPickerOptions.cyclic1, mPickerOptions.cyclic2, mPickerOptions.cyclic3);
         wheelOptions.setTypeface(mPickerOptions.font);
 
-        setOutSideCancelable(mPickerOptions.cancelable);
-
         wheelOptions.setDividerColor(mPickerOptions.dividerColor);
         wheelOptions.setDividerType(mPickerOptions.dividerType);
         wheelOptions.setLineSpacingMultiplier(mPickerOptions.lineSpacingMultiplier);
@@ -135,9 +142,23 @@ public class OptionsPickerView<T> extends BasePickerView implements View.OnClick
         reSetCurrentItems();
     }
 
+    /**
+     * N级联动时设置默认选中项
+     *
+     * @param options 各列的选中项
+     */
+    public void setTreeSelectOptions(int[] options) {
+        mPickerOptions.treeOptions = options;
+        reSetCurrentItems();
+    }
+
     private void reSetCurrentItems() {
         if (wheelOptions != null) {
-            wheelOptions.setCurrentItems(mPickerOptions.option1, mPickerOptions.option2, mPickerOptions.option3);
+            if (wheelOptions.isTreeMode() && mPickerOptions.treeOptions != null) {
+                wheelOptions.setCurrentItems(mPickerOptions.treeOptions);
+            } else {
+                wheelOptions.setCurrentItems(mPickerOptions.option1, mPickerOptions.option2, mPickerOptions.option3);
+            }
         }
     }
 
@@ -158,6 +179,16 @@ public class OptionsPickerView<T> extends BasePickerView implements View.OnClick
     }
 
 
+    //N级联动数据
+    public void setTreePicker(LinkageTree tree) {
+        int wheelCount = wheelOptions.getWheelCount();
+        wheelOptions.setTreePicker(tree);
+        if (wheelOptions.getWheelCount() != wheelCount) {
+            applyWheelStyle();//新创建的列需要设置样式
+        }
+        reSetCurrentItems();
+    }
+
     //不联动情况下调用
     public void setNPicker(List<T> options1Items,
                            List<T> options2Items,
@@ -183,7 +214,9 @@ public class OptionsPickerView<T> extends BasePickerView implements View.OnClick
 
     //抽离接口回调的方法
     public void returnData() {
-        if (mPickerOptions.optionsSelectListener != null) {
+        if (wheelOptions.isTreeMode() && mPickerOptions.optionsTreeSelectListener != null) {
+            mPickerOptions.optionsTreeSelectListener.onOptionsSelect(wheelOptions.getTreeCurrentItems(), clickView);
+        } else if (mPickerOptions.optionsSelectListener != null) {
             int[] optionsCurrentItems = wheelOptions.getCurrentItems();
             mPickerOptions.optionsSelectListener.onOptionsSelect(optionsCurrentItems[0], optionsCurrentItems[1], optionsCurrentItems[2], clickView);
         }
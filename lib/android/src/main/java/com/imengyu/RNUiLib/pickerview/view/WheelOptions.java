@@ -2,13 +2,18 @@ package com.imengyu.RNUiLib.pickerview.view;
 
 import android.graphics.Typeface;
 import android.view.View;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
 
 import com.imengyu.RNUiLib.R;
 import com.imengyu.RNUiLib.pickerview.adapter.ArrayWheelAdapter;
+import com.imengyu.RNUiLib.pickerview.adapter.LinkageTree;
+import com.imengyu.RNUiLib.pickerview.adapter.LinkageTreeWheelAdapter;
 import com.imengyu.RNUiLib.pickerview.listener.OnOptionsSelectChangeListener;
 import com.imengyu.RNUiLib.whellview.listener.OnItemSelectedListener;
 import com.imengyu.RNUiLib.whellview.view.WheelView;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class WheelOptions<T> {
@@ -16,11 +21,15 @@ public class WheelOptions<T> {
     private WheelView wv_option1;
     private WheelView wv_option2;
     private WheelView wv_option3;
+    private final List<WheelView> wheelViews = new ArrayList<>();//所有列，超过3列时按需创建
 
     private List<T> mOptions1Items;
     private List<List<T>> mOptions2Items;
     private List<List<List<T>>> mOptions3Items;
 
+    private LinkageTree mTree;//N级联动数据
+    private LinkageTreeWheelAdapter[] mTreeAdapters;
+
     private boolean linkage = true;//默认联动
     private boolean isRestoreItem; //切换时，还原第一项
     private OnItemSelectedListener wheelListener_option1;
@@ -43,6 +52,103 @@ public class WheelOptions<T> {
         wv_option1 = (WheelView) view.findViewById(R.id.options1);// 初始化时显示的数据
         wv_option2 = (WheelView) view.findViewById(R.id.options2);
         wv_option3 = (WheelView) view.findViewById(R.id.options3);
+        wheelViews.add(wv_option1);
+        wheelViews.add(wv_option2);
+        wheelViews.add(wv_option3);
+    }
+
+    /**
+     * 确保至少有指定数目的列，不足时按需创建新的 WheelView
+     *
+     * @param count 列数
+     */
+    private void ensureWheelCount(int count) {
+        while (wheelViews.size() < count) {
+            WheelView wv = new WheelView(view.getContext());
+            wv.setLayoutParams(new LinearLayout.LayoutParams(0, ViewGroup.LayoutParams.MATCH_PARENT, 1));
+            ((ViewGroup) view).addView(wv);
+            wheelViews.add(wv);
+        }
+    }
+
+    /**
+     * 获取当前的列数（包括隐藏的列）
+     */
+    public int getWheelCount() {
+        return wheelViews.size();
+    }
+
+    public boolean isTreeMode() {
+        return mTree != null;
+    }
+
+    /**
+     * 设置N级联动数据。
+     * 每一列的适配器只引用树中的一段连续区间，某一列变化时只需要依次更新其后的列，开销为 O(层数)。
+     *
+     * @param tree 联动树
+     */
+    public void setTreePicker(LinkageTree tree) {
+        this.mTree = tree;
+        this.mOptions1Items = null;
+        this.mOptions2Items = null;
+        this.mOptions3Items = null;
+
+        int depth = Math.max(1, tree.getDepth());
+        ensureWheelCount(depth);
+        mTreeAdapters = new LinkageTreeWheelAdapter[depth];
+
+        for (int i = 0; i < wheelViews.size(); i++) {
+            WheelView wv = wheelViews.get(i);
+            if (i < depth) {
+                final int column = i;
+                mTreeAdapters[i] = new LinkageTreeWheelAdapter(tree);
+                wv.setIsOptions(true);
+                wv.setVisibility(View.VISIBLE);
+                wv.setCurrentItem(0);
+                wv.setOnItemSelectedListener(new OnItemSelectedListener() {
+                    @Override
+                    public void onItemSelected(int index) {
+                        onTreeItemSelected(column);
+                    }
+                });
+            } else {
+                wv.setOnItemSelectedListener(null);
+                wv.setVisibility(View.GONE);
+            }
+        }
+        mTreeAdapters[0].setParent(LinkageTree.ROOT);
+        wheelViews.get(0).setAdapter(mTreeAdapters[0]);
+        updateTreeColumns(1);
+    }
+
+    /**
+     * 从指定列开始，根据上一列的选中项依次更新后面各列的数据区间
+     *
+     * @param fromColumn 开始的列
+     */
+    private void updateTreeColumns(int fromColumn) {
+        for (int i = Math.max(1, fromColumn); i < mTreeAdapters.length; i++) {
+            WheelView wv = wheelViews.get(i);
+            int parent = mTreeAdapters[i - 1].getNode(wheelViews.get(i - 1).getCurrentItem());
+            mTreeAdapters[i].setParent(parent);
+
+            int select = 0;
+            if (!isRestoreItem) {
+                //沿用旧位置，如果超过数据范围则选中最后一项
+                select = Math.max(0, Math.min(wv.getCurrentItem(), mTreeAdapters[i].getItemsCount() - 1));
+            }
+            wv.setAdapter(mTreeAdapters[i]);
+            wv.setCurrentItem(select);
+        }
+    }
+
+    private void onTreeItemSelected(int column) {
+        updateTreeColumns(column + 1);
+        if (optionsSelectChangeListener != null) {
+            int[] items = getCurrentItems();
+            optionsSelectChangeListener.onOptionsSelectChanged(items[0], items[1], items[2]);
+        }
     }
 
 
@@ -52,6 +158,8 @@ public class WheelOptions<T> {
         this.mOptions1Items = options1Items;
         this.mOptions2Items = options2Items;
         this.mOptions3Items = options3Items;
+        this.mTree = null;
+        hideExtraWheels();
 
         // 选项1
         wv_option1.setAdapter(new ArrayWheelAdapter(mOptions1Items));// 设置显示数据
@@ -66,9 +174,9 @@ public class WheelOptions<T> {
             wv_option3.setAdapter(new ArrayWheelAdapter(mOptions3Items.get(0).get(0)));// 设置显示数据
         }
         wv_option3.setCurrentItem(wv_option3.getCurrentItem());
-        wv_option1.setIsOptions(true);
-        wv_option2.setIsOptions(true);
-        wv_option3.setIsOptions(true);
+        for (WheelView wv : wheelViews) {
+            wv.setIsOptions(true);
+        }
 
         if (this.mOptions2Items == null) {
             wv_option2.setVisibility(View.GONE);
@@ -161,6 +269,8 @@ public class WheelOptions<T> {
 
     //不联动情况下
     public void setNPicker(List<T> options1Items, List<T> options2Items, List<T> options3Items) {
+        this.mTree = null;
+        hideExtraWheels();
 
         // 选项1
         wv_option1.setAdapter(new ArrayWheelAdapter<>(options1Items));// 设置显示数据
@@ -175,9 +285,9 @@ public class WheelOptions<T> {
             wv_option3.setAdapter(new ArrayWheelAdapter<>(options3Items));// 设置显示数据
         }
         wv_option3.setCurrentItem(wv_option3.getCurrentItem());
-        wv_option1.setIsOptions(true);
-        wv_option2.setIsOptions(true);
-        wv_option3.setIsOptions(true);
+        for (WheelView wv : wheelViews) {
+            wv.setIsOptions(true);
+        }
 
         if (optionsSelectChangeListener != null) {
             wv_option1.setOnItemSelectedListener(new OnItemSelectedListener() {
@@ -216,10 +326,16 @@ public class WheelOptions<T> {
         }
     }
 
+    private void hideExtraWheels() {
+        for (int i = 3; i < wheelViews.size(); i++) {
+            wheelViews.get(i).setVisibility(View.GONE);
+        }
+    }
+
     public void setTextContentSize(int textSize) {
-        wv_option1.setTextSize(textSize);
-        wv_option2.setTextSize(textSize);
-        wv_option3.setTextSize(textSize);
+        for (WheelView wv : wheelViews) {
+            wv.setTextSize(textSize);
+        }
     }
 
     private void setLineSpacingMultiplier() {
@@ -260,9 +376,9 @@ public class WheelOptions<T> {
      * @param cyclic 是否循环
      */
     public void setCyclic(boolean cyclic) {
-        wv_option1.setCyclic(cyclic);
-        wv_option2.setCyclic(cyclic);
-        wv_option3.setCyclic(cyclic);
+        for (WheelView wv : wheelViews) {
+            wv.setCyclic(cyclic);
+        }
     }
 
     /**
@@ -271,9 +387,9 @@ public class WheelOptions<T> {
      * @param font 系统提供的几种样式
      */
     public void setTypeface(Typeface font) {
-        wv_option1.setTypeface(font);
-        wv_option2.setTypeface(font);
-        wv_option3.setTypeface(font);
+        for (WheelView wv : wheelViews) {
+            wv.setTypeface(font);
+        }
     }
 
     /**
@@ -294,6 +410,12 @@ public class WheelOptions<T> {
      * @return 索引数组
      */
     public int[] getCurrentItems() {
+        if (mTree != null) {
+            int[] treeItems = getTreeCurrentItems();
+            int[] currentItems = new int[Math.max(3, treeItems.length)];
+            System.arraycopy(treeItems, 0, currentItems, 0, treeItems.length);
+            return currentItems;
+        }
         int[] currentItems = new int[3];
         currentItems[0] = wv_option1.getCurrentItem();
 
@@ -312,8 +434,24 @@ public class WheelOptions<T> {
         return currentItems;
     }
 
+    /**
+     * N级联动时返回当前选中的结果，长度与列数相同
+     *
+     * @return 索引数组
+     */
+    public int[] getTreeCurrentItems() {
+        int[] currentItems = new int[mTreeAdapters.length];
+        for (int i = 0; i < mTreeAdapters.length; i++) {
+            WheelView wv = wheelViews.get(i);
+            currentItems[i] = wv.getCurrentItem() > mTreeAdapters[i].getItemsCount() - 1 ? 0 : wv.getCurrentItem();
+        }
+        return currentItems;
+    }
+
     public void setCurrentItems(int option1, int option2, int option3) {
-        if (linkage) {
+        if (mTree != null) {
+            setCurrentItems(new int[]{option1, option2, option3});
+        } else if (linkage) {
             itemSelected(option1, option2, option3);
         } else {
             wv_option1.setCurrentItem(option1);
@@ -322,6 +460,31 @@ public class WheelOptions<T> {
         }
     }
 
+    /**
+     * N级联动时设置各列的选中项
+     *
+     * @param options 各列的选中项
+     */
+    public void setCurrentItems(int[] options) {
+        if (mTree == null) {
+            setCurrentItems(
+                    options.length > 0 ? options[0] : 0,
+                    options.length > 1 ? options[1] : 0,
+                    options.length > 2 ? options[2] : 0
+            );
+            return;
+        }
+        for (int i = 0; i < mTreeAdapters.length; i++) {
+            WheelView wv = wheelViews.get(i);
+            if (i > 0) {
+                mTreeAdapters[i].setParent(mTreeAdapters[i - 1].getNode(wheelViews.get(i - 1).getCurrentItem()));
+                wv.setAdapter(mTreeAdapters[i]);
+            }
+            int select = i < options.length ? options[i] : 0;
+            wv.setCurrentItem(Math.max(0, Math.min(select, mTreeAdapters[i].getItemsCount() - 1)));
+        }
+    }
+
     private void itemSelected(int opt1Select, int opt2Select, int opt3Select) {
         if (mOptions1Items != null) {
             wv_option1.setCurrentItem(opt1Select);
@@ -342,9 +505,9 @@ public class WheelOptions<T> {
      * @param lineSpacingMultiplier
      */
     public void setLineSpacingMultiplier(float lineSpacingMultiplier) {
-        wv_option1.setLineSpacingMultiplier(lineSpacingMultiplier);
-        wv_option2.setLineSpacingMultiplier(lineSpacingMultiplier);
-        wv_option3.setLineSpacingMultiplier(lineSpacingMultiplier);
+        for (WheelView wv : wheelViews) {
+            wv.setLineSpacingMultiplier(lineSpacingMultiplier);
+        }
     }
 
     /**
@@ -353,9 +516,9 @@ public class WheelOptions<T> {
      * @param dividerColor
      */
     public void setDividerColor(int dividerColor) {
-        wv_option1.setDividerColor(dividerColor);
-        wv_option2.setDividerColor(dividerColor);
-        wv_option3.setDividerColor(dividerColor);
+        for (WheelView wv : wheelViews) {
+            wv.setDividerColor(dividerColor);
+        }
     }
 
     /**
@@ -364,9 +527,9 @@ public class WheelOptions<T> {
      * @param dividerType
      */
     public void setDividerType(WheelView.DividerType dividerType) {
-        wv_option1.setDividerType(dividerType);
-        wv_option2.setDividerType(dividerType);
-        wv_option3.setDividerType(dividerType);
+        for (WheelView wv : wheelViews) {
+            wv.setDividerType(dividerType);
+        }
     }
 
     /**
@@ -375,9 +538,9 @@ public class WheelOptions<T> {
      * @param textColorCenter
      */
     public void setTextColorCenter(int textColorCenter) {
-        wv_option1.setTextColorCenter(textColorCenter);
-        wv_option2.setTextColorCenter(textColorCenter);
-        wv_option3.setTextColorCenter(textColorCenter);
+        for (WheelView wv : wheelViews) {
+            wv.setTextColorCenter(textColorCenter);
+        }
     }
 
     /**
@@ -386,9 +549,9 @@ public class WheelOptions<T> {
      * @param textColorOut
      */
     public void setTextColorOut(int textColorOut) {
-        wv_option1.setTextColorOut(textColorOut);
-        wv_option2.setTextColorOut(textColorOut);
-        wv_option3.setTextColorOut(textColorOut);
+        for (WheelView wv : wheelViews) {
+            wv.setTextColorOut(textColorOut);
+        }
     }
 
     /**
@@ -397,9 +560,9 @@ public class WheelOptions<T> {
      * @param isCenterLabel
      */
     public void isCenterLabel(boolean isCenterLabel) {
-        wv_option1.isCenterLabel(isCenterLabel);
-        wv_option2.isCenterLabel(isCenterLabel);
-        wv_option3.isCenterLabel(isCenterLabel);
+        for (WheelView wv : wheelViews) {
+            wv.isCenterLabel(isCenterLabel);
+        }
     }
 
     public void setOptionsSelectChangeListener(OnOptionsSelectChangeListener optionsSelectChangeListener) {
@@ -416,14 +579,14 @@ public class WheelOptions<T> {
      * @param itemsVisible 建议设置为 3 ~ 9之间。
      */
     public void setItemsVisible(int itemsVisible) {
-        wv_option1.setItemsVisibleCount(itemsVisible);
-        wv_option2.setItemsVisibleCount(itemsVisible);
-        wv_option3.setItemsVisibleCount(itemsVisible);
+        for (WheelView wv : wheelViews) {
+            wv.setItemsVisibleCount(itemsVisible);
+        }
     }
 
     public void setAlphaGradient(boolean isAlphaGradient) {
-        wv_option1.setAlphaGradient(isAlphaGradient);
-        wv_option2.setAlphaGradient(isAlphaGradient);
-        wv_option3.setAlphaGradient(isAlphaGradient);
+        for (WheelView wv : wheelViews) {
+            wv.setAlphaGradient(isAlphaGradient);
+        }
     }
 }
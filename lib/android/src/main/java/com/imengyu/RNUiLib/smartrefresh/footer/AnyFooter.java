@@ -0,0 +1,129 @@
+package com.imengyu.RNUiLib.smartrefresh.footer;
+
+import android.content.Context;
+import android.graphics.drawable.BitmapDrawable;
+import android.view.View;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+
+import com.facebook.react.views.view.ReactViewGroup;
+import com.imengyu.RNUiLib.utils.DensityUtil;
+import com.scwang.smart.refresh.layout.api.RefreshFooter;
+import com.scwang.smart.refresh.layout.api.RefreshKernel;
+import com.scwang.smart.refresh.layout.api.RefreshLayout;
+import com.scwang.smart.refresh.layout.constant.RefreshState;
+import com.scwang.smart.refresh.layout.constant.SpinnerStyle;
+
+/**
+ * 把任意视图包装为加载更多的 Footer
+ */
+public class AnyFooter extends ReactViewGroup implements RefreshFooter {
+    private RefreshKernel mRefreshKernel;
+    private int mBackgroundColor;
+    private Integer mPrimaryColor;
+    private SpinnerStyle mSpinnerStyle = SpinnerStyle.Translate;
+    private boolean mNoMoreData = false;
+
+    public AnyFooter(Context context) {
+        super(context);
+        initView(context);
+    }
+
+    private void initView(Context context) {
+        setMinimumHeight(DensityUtil.dip2px(context, 50));
+    }
+    public void setView(View v){
+        addView(v);
+    }
+    @NonNull
+    public View getView() {
+        return this;
+    }
+
+    @NonNull
+    @Override
+    public SpinnerStyle getSpinnerStyle() {
+        return this.mSpinnerStyle;//指定为平移，不能null
+    }
+
+    @Override
+    public void onInitialized(@NonNull RefreshKernel kernel, int height, int extendHeight) {
+        mRefreshKernel = kernel;
+        mRefreshKernel.requestDrawBackgroundFor(this, mBackgroundColor);
+    }
+    @Override
+    public void onMoving(boolean isDragging, float percent, int offset, int height, int maxDragHeight) {
+
+    }
+    /**
+     * 设置主题色
+     * @param colors
+     */
+    @Override
+    public void setPrimaryColors(int... colors) {
+        if(colors.length>0) {
+            if (!(getBackground() instanceof BitmapDrawable) && mPrimaryColor == null) {
+                setPrimaryColor(colors[0]);
+                mPrimaryColor = null;
+            }
+        }
+    }
+
+    public AnyFooter setPrimaryColor(@ColorInt int primaryColor) {
+        mBackgroundColor = mPrimaryColor =primaryColor;
+        if (mRefreshKernel != null) {
+            mRefreshKernel.requestDrawBackgroundFor(this, mPrimaryColor);
+        }
+        return this;
+    }
+
+    public AnyFooter setSpinnerStyle(SpinnerStyle style){
+        this.mSpinnerStyle = style;
+        return this;
+    }
+
+    /**
+     * 设置是否已经没有更多数据，JS 的 Footer 视图自己负责显示对应的文字
+     * @return 返回 true 表示 Footer 已处理该状态
+     */
+    @Override
+    public boolean setNoMoreData(boolean noMoreData) {
+        mNoMoreData = noMoreData;
+        return true;
+    }
+
+    public boolean isNoMoreData() {
+        return mNoMoreData;
+    }
+
+    @Override
+    public void onReleased(@NonNull RefreshLayout refreshLayout, int height, int extendHeight) {
+
+    }
+
+    @Override
+    public void onStartAnimator(@NonNull RefreshLayout refreshLayout, int height, int extendHeight) {
+
+    }
+
+    @Override
+    public int onFinish(@NonNull RefreshLayout refreshLayout, boolean success) {
+        return 0;//新数据已经追加在列表后面，不需要停留
+    }
+
+    @Override
+    public void onHorizontalDrag(float percentX, int offsetX, int offsetMax) {
+
+    }
+
+    @Override
+    public boolean isSupportHorizontalDrag() {
+        return false;
+    }
+
+    @Override
+    public void onStateChanged(@NonNull RefreshLayout refreshLayout, @NonNull RefreshState oldState, @NonNull RefreshState newState) {
+
+    }
+}
@@ -2,6 +2,7 @@ package com.imengyu.RNUiLib.smartrefresh.header;
 
 import android.content.Context;
 import android.graphics.drawable.BitmapDrawable;
+import android.os.SystemClock;
 import android.view.View;
 
 import androidx.annotation.ColorInt;
@@ -20,9 +21,22 @@ public class AnyHeader extends ReactViewGroup implements RefreshHeader {
     private int mBackgroundColor;
     private Integer mPrimaryColor;
     private SpinnerStyle mSpinnerStyle = SpinnerStyle.Translate;
+    private HeaderAnimation mPullAnimation;
+    private float mLastPercent = 0;
+    private final float mDensity;
+    private int mFinishDelay = DEFAULT_FINISH_DELAY;
+    private int mFinishDelayMin = 0;
+    private int mFinishDelaySkipAfter = 0;
+    private long mRefreshStartTime = -1;
+
+    /**
+     * 默认刷新完成后停留的时间（ms）
+     */
+    public static final int DEFAULT_FINISH_DELAY = 500;
 
     public AnyHeader(Context context) {
         super(context);
+        mDensity = context.getResources().getDisplayMetrics().density;
         initView(context);
     }
 
@@ -51,7 +65,29 @@ public class AnyHeader extends ReactViewGroup implements RefreshHeader {
     }
     @Override
     public void onMoving(boolean isDragging, float percent, int offset, int height, int maxDragHeight) {
+        mLastPercent = percent;
+        applyPullAnimation();
+    }
 
+    /**
+     * 设置下拉动画，动画会在下拉时直接作用到刷新头的子视图上
+     * @param animation 动画，null 表示取消并恢复子视图
+     */
+    public AnyHeader setPullAnimation(HeaderAnimation animation) {
+        if (mPullAnimation != null) {
+            for (int i = 0; i < getChildCount(); i++)
+                HeaderAnimation.reset(getChildAt(i));
+        }
+        mPullAnimation = animation;
+        applyPullAnimation();
+        return this;
+    }
+
+    private void applyPullAnimation() {
+        if (mPullAnimation == null)
+            return;
+        for (int i = 0; i < getChildCount(); i++)
+            mPullAnimation.apply(getChildAt(i), mLastPercent, mDensity);
     }
     /**
      * 设置主题色
@@ -90,9 +126,35 @@ public class AnyHeader extends ReactViewGroup implements RefreshHeader {
 
     }
 
+    /**
+     * 设置刷新完成后停留多久再弹回
+     * @param finishDelay 停留时间（ms）
+     */
+    public AnyHeader setFinishDelay(int finishDelay) {
+        mFinishDelay = Math.max(0, finishDelay);
+        return this;
+    }
+
+    /**
+     * 设置自适应的停留时间。
+     * 刷新耗时超过 skipAfter 时不再停留（用户已经等得足够久），否则只停留 minDelay，
+     * skipAfter 为 0 时关闭自适应，始终使用 finishDelay。
+     * @param skipAfter 刷新耗时阈值（ms）
+     * @param minDelay  快速刷新时的停留时间（ms）
+     */
+    public AnyHeader setAdaptiveFinishDelay(int skipAfter, int minDelay) {
+        mFinishDelaySkipAfter = Math.max(0, skipAfter);
+        mFinishDelayMin = Math.max(0, minDelay);
+        return this;
+    }
+
     @Override
     public int onFinish(@NonNull RefreshLayout refreshLayout, boolean success) {
-        return 500;//延迟500毫秒之后再弹回
+        if (mFinishDelaySkipAfter <= 0 || mRefreshStartTime < 0)
+            return mFinishDelay;//延迟之后再弹回
+        long refreshTime = SystemClock.uptimeMillis() - mRefreshStartTime;
+        mRefreshStartTime = -1;
+        return refreshTime >= mFinishDelaySkipAfter ? 0 : Math.min(mFinishDelayMin, mFinishDelay);
     }
 
     @Override
@@ -107,6 +169,7 @@ public class AnyHeader extends ReactViewGroup implements RefreshHeader {
 
     @Override
     public void onStateChanged(@NonNull RefreshLayout refreshLayout, @NonNull RefreshState oldState, @NonNull RefreshState newState) {
-
+        if (newState == RefreshState.Refreshing)
+            mRefreshStartTime = SystemClock.uptimeMillis();
     }
 }
@@ -2,6 +2,7 @@ package com.imengyu.RNUiLib.smartrefresh.header;
 
 import android.graphics.Color;
 
+import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.uimanager.ThemedReactContext;
 import com.facebook.react.uimanager.ViewGroupManager;
 import com.facebook.react.uimanager.annotations.ReactProp;
@@ -43,4 +44,40 @@ public class AnyHeaderManager extends ViewGroupManager<AnyHeader> {
     public void setSpinnerStyle(AnyHeader view,String spinnerStyle){
         view.setSpinnerStyle(SpinnerStyleConstants.SpinnerStyleMap.get(spinnerStyle));
     }
+
+    /**
+     * 设置下拉动画描述，见 {@link HeaderAnimation}
+     * @param view
+     * @param pullAnimation
+     */
+    @ReactProp(name = "pullAnimation")
+    public void setPullAnimation(AnyHeader view, ReadableMap pullAnimation){
+        view.setPullAnimation(HeaderAnimation.fromReadableMap(pullAnimation));
+    }
+
+    /**
+     * 设置刷新完成后停留多久再弹回（ms）
+     * @param view
+     * @param finishDelay
+     */
+    @ReactProp(name = "finishDelay", defaultInt = AnyHeader.DEFAULT_FINISH_DELAY)
+    public void setFinishDelay(AnyHeader view, int finishDelay){
+        view.setFinishDelay(finishDelay);
+    }
+
+    /**
+     * 设置自适应停留时间 { skipAfter, minDelay }
+     * @param view
+     * @param adaptiveFinishDelay
+     */
+    @ReactProp(name = "adaptiveFinishDelay")
+    public void setAdaptiveFinishDelay(AnyHeader view, ReadableMap adaptiveFinishDelay){
+        if (adaptiveFinishDelay == null) {
+            view.setAdaptiveFinishDelay(0, 0);
+            return;
+        }
+        view.setAdaptiveFinishDelay(
+                adaptiveFinishDelay.hasKey("skipAfter") ? adaptiveFinishDelay.getInt("skipAfter") : 0,
+                adaptiveFinishDelay.hasKey("minDelay") ? adaptiveFinishDelay.getInt("minDelay") : 0);
+    }
 }
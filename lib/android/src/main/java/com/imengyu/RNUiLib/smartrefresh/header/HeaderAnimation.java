@@ -0,0 +1,148 @@
+package com.imengyu.RNUiLib.smartrefresh.header;
+
+import android.util.Log;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+
+/**
+ * 刷新头的声明式下拉动画
+ * 每个属性给出 inputRange（下拉百分比）和 outputRange，下拉时在原生层插值后直接设置到视图上，
+ * 不需要经过 JS，JS 线程繁忙时动画也能跟手。超出 inputRange 的部分取两端的值。
+ *
+ * 格式：{ opacity: { inputRange: [0, 1], outputRange: [0, 1] }, rotation: {...}, ... }
+ */
+public class HeaderAnimation {
+
+    private static final String TAG = "HeaderAnimation";
+
+    private static final int OPACITY = 0;
+    private static final int ROTATION = 1;
+    private static final int SCALE = 2;
+    private static final int SCALE_X = 3;
+    private static final int SCALE_Y = 4;
+    private static final int TRANSLATE_X = 5;
+    private static final int TRANSLATE_Y = 6;
+
+    private static final String[] PROPERTY_NAMES = {
+            "opacity", "rotation", "scale", "scaleX", "scaleY", "translateX", "translateY"
+    };
+
+    private final float[][] inputRanges = new float[PROPERTY_NAMES.length][];
+    private final float[][] outputRanges = new float[PROPERTY_NAMES.length][];
+
+    private HeaderAnimation() {
+    }
+
+    /**
+     * 从 JS 传入的描述创建动画
+     * @param map 动画描述
+     * @return 没有任何有效属性时返回 null，无效的属性会被忽略
+     */
+    @Nullable
+    public static HeaderAnimation fromReadableMap(@Nullable ReadableMap map) {
+        if (map == null)
+            return null;
+        HeaderAnimation animation = new HeaderAnimation();
+        boolean hasTrack = false;
+        for (int i = 0; i < PROPERTY_NAMES.length; i++) {
+            String name = PROPERTY_NAMES[i];
+            if (!map.hasKey(name) || map.isNull(name))
+                continue;
+            //无效的属性只输出警告并跳过，不能在设置 prop 时抛出异常
+            float[] input;
+            float[] output;
+            try {
+                ReadableMap track = map.getMap(name);
+                input = toFloatArray(track, "inputRange");
+                output = toFloatArray(track, "outputRange");
+            } catch (RuntimeException e) {
+                Log.w(TAG, "pullAnimation." + name + " is invalid, ignored", e);
+                continue;
+            }
+            if (input.length < 2 || input.length != output.length) {
+                Log.w(TAG, "pullAnimation." + name + " needs inputRange and outputRange of the same length (at least 2), ignored");
+                continue;
+            }
+            if (!isNonDecreasing(input)) {
+                Log.w(TAG, "pullAnimation." + name + ".inputRange must be non-decreasing, ignored");
+                continue;
+            }
+            animation.inputRanges[i] = input;
+            animation.outputRanges[i] = output;
+            hasTrack = true;
+        }
+        return hasTrack ? animation : null;
+    }
+
+    /**
+     * 按下拉百分比设置视图属性
+     * @param view    目标视图
+     * @param percent 下拉百分比
+     * @param density 屏幕密度，用于把 translate 的 dp 转为 px
+     */
+    public void apply(View view, float percent, float density) {
+        for (int i = 0; i < PROPERTY_NAMES.length; i++) {
+            if (inputRanges[i] == null)
+                continue;
+            float value = interpolate(inputRanges[i], outputRanges[i], percent);
+            switch (i) {
+                case OPACITY: view.setAlpha(value); break;
+                case ROTATION: view.setRotation(value); break;
+                case SCALE: view.setScaleX(value); view.setScaleY(value); break;
+                case SCALE_X: view.setScaleX(value); break;
+                case SCALE_Y: view.setScaleY(value); break;
+                case TRANSLATE_X: view.setTranslationX(value * density); break;
+                case TRANSLATE_Y: view.setTranslationY(value * density); break;
+            }
+        }
+    }
+
+    /**
+     * 把动画可能修改过的属性恢复为默认值
+     */
+    public static void reset(View view) {
+        view.setAlpha(1);
+        view.setRotation(0);
+        view.setScaleX(1);
+        view.setScaleY(1);
+        view.setTranslationX(0);
+        view.setTranslationY(0);
+    }
+
+    static float interpolate(float[] input, float[] output, float x) {
+        int last = input.length - 1;
+        if (x <= input[0])
+            return output[0];
+        if (x >= input[last])
+            return output[last];
+        int i = 1;
+        while (input[i] < x)
+            i++;
+        float range = input[i] - input[i - 1];
+        if (range == 0)
+            return output[i];
+        return output[i - 1] + (output[i] - output[i - 1]) * (x - input[i - 1]) / range;
+    }
+
+    private static boolean isNonDecreasing(float[] values) {
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] < values[i - 1])
+                return false;
+        }
+        return true;
+    }
+
+    private static float[] toFloatArray(ReadableMap track, String key) {
+        if (!track.hasKey(key) || track.isNull(key))
+            return new float[0];
+        ReadableArray array = track.getArray(key);
+        float[] result = new float[array.size()];
+        for (int i = 0; i < result.length; i++)
+            result[i] = (float) array.getDouble(i);
+        return result;
+    }
+}
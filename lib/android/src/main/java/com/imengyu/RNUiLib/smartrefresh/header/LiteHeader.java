@@ -0,0 +1,291 @@
+package com.imengyu.RNUiLib.smartrefresh.header;
+
+import android.animation.ValueAnimator;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.drawable.Drawable;
+import android.text.TextPaint;
+import android.util.LruCache;
+import android.util.TypedValue;
+import android.view.View;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+
+import com.imengyu.RNUiLib.utils.DensityUtil;
+import com.scwang.smart.drawable.ProgressDrawable;
+import com.scwang.smart.refresh.layout.api.RefreshHeader;
+import com.scwang.smart.refresh.layout.api.RefreshKernel;
+import com.scwang.smart.refresh.layout.api.RefreshLayout;
+import com.scwang.smart.refresh.layout.constant.RefreshState;
+import com.scwang.smart.refresh.layout.constant.SpinnerStyle;
+
+/**
+ * 轻量的默认刷新头
+ * 与 DefaultHeader 显示相同的内容，但不创建任何子视图，箭头、文字和加载动画都直接绘制在同一个 Canvas 上，
+ * 文字宽度在创建时预先测量。空闲状态（箭头朝下、显示“下拉开始刷新”）的画面会缓存为位图，
+ * 相同尺寸和颜色的刷新头共享同一个缓存，页面中有多个刷新布局时不需要重复绘制。
+ */
+public class LiteHeader extends View implements RefreshHeader {
+
+    private static final String TEXT_PULL_DOWN = "下拉开始刷新";
+    private static final String TEXT_RELEASE = "释放立即刷新";
+    private static final String TEXT_REFRESHING = "正在刷新";
+    private static final String TEXT_FINISH = "刷新完成";
+    private static final String TEXT_FAILED = "刷新失败";
+    private static final String[] TEXTS = { TEXT_PULL_DOWN, TEXT_RELEASE, TEXT_REFRESHING, TEXT_FINISH, TEXT_FAILED };
+
+    private static final int DEFAULT_ACCENT_COLOR = 0xff666666;
+
+    /**
+     * 空闲状态画面的缓存，key 为 宽x高/颜色/字号
+     */
+    private static final LruCache<String, Bitmap> sIdleSnapshots = new LruCache<String, Bitmap>(4 * 1024 * 1024) {
+        @Override
+        protected int sizeOf(String key, Bitmap value) {
+            return value.getByteCount();
+        }
+    };
+
+    private final TextPaint mTextPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint mArrowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Path mArrowPath = new Path();
+    private final float[] mTextWidths = new float[TEXTS.length];
+    private final ProgressDrawable mProgressDrawable = new ProgressDrawable();
+    private final int mIconSize;
+    private final int mIconMargin;
+
+    private SpinnerStyle mSpinnerStyle = SpinnerStyle.Translate;
+    private RefreshKernel mRefreshKernel;
+    private int mBackgroundColor;
+    private int mAccentColor = DEFAULT_ACCENT_COLOR;
+    //空闲状态画面的缓存 key，尺寸、颜色、字号变化时重新生成，避免每次绘制都拼接字符串
+    private String mSnapshotKey = null;
+
+    private int mTextIndex = 0;
+    private boolean mShowProgress = false;
+    private float mArrowRotation = 0;
+    private ValueAnimator mArrowAnimator;
+
+    public LiteHeader(Context context) {
+        super(context);
+        mIconSize = DensityUtil.dip2px(context, 20);
+        mIconMargin = DensityUtil.dip2px(context, 20);
+
+        mTextPaint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 14, getResources().getDisplayMetrics()));
+        for (int i = 0; i < TEXTS.length; i++)
+            mTextWidths[i] = mTextPaint.measureText(TEXTS[i]);
+
+        mArrowPaint.setStyle(Paint.Style.STROKE);
+        mArrowPaint.setStrokeWidth(DensityUtil.dip2px(context, 2));
+        mArrowPaint.setStrokeCap(Paint.Cap.ROUND);
+        mArrowPaint.setStrokeJoin(Paint.Join.ROUND);
+        buildArrowPath();
+
+        mProgressDrawable.setCallback(this);
+        applyAccentColor();
+        setMinimumHeight(DensityUtil.dip2px(context, 60));
+    }
+
+    /**
+     * 箭头（朝下）以图标中心为原点
+     */
+    private void buildArrowPath() {
+        float half = mIconSize / 2f - mArrowPaint.getStrokeWidth();
+        mArrowPath.reset();
+        mArrowPath.moveTo(0, -half);
+        mArrowPath.lineTo(0, half);
+        mArrowPath.moveTo(-half * 0.7f, half * 0.3f);
+        mArrowPath.lineTo(0, half);
+        mArrowPath.lineTo(half * 0.7f, half * 0.3f);
+    }
+
+    private void applyAccentColor() {
+        mTextPaint.setColor(mAccentColor);
+        mArrowPaint.setColor(mAccentColor);
+        mProgressDrawable.setColor(mAccentColor);
+        updateSnapshotKey(getWidth(), getHeight());
+        invalidate();
+    }
+
+    private void updateSnapshotKey(int width, int height) {
+        mSnapshotKey = width > 0 && height > 0
+                ? width + "x" + height + "/" + mAccentColor + "/" + mTextPaint.getTextSize() : null;
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        updateSnapshotKey(w, h);
+    }
+
+    private boolean isIdle() {
+        return mTextIndex == 0 && !mShowProgress && mArrowRotation == 0;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0)
+            return;
+
+        String key = mSnapshotKey;
+        if (isIdle() && key != null) {
+            Bitmap snapshot = sIdleSnapshots.get(key);
+            if (snapshot == null) {
+                snapshot = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+                drawContent(new Canvas(snapshot), width, height);
+                sIdleSnapshots.put(key, snapshot);
+            }
+            canvas.drawBitmap(snapshot, 0, 0, null);
+        } else {
+            drawContent(canvas, width, height);
+        }
+    }
+
+    private void drawContent(Canvas canvas, int width, int height) {
+        float textWidth = mTextWidths[mTextIndex];
+        float left = (width - mIconSize - mIconMargin - textWidth) / 2f;
+        float centerY = height / 2f;
+        float iconCenterX = left + mIconSize / 2f;
+
+        if (mShowProgress) {
+            int iconLeft = (int) left;
+            int iconTop = (int) (centerY - mIconSize / 2f);
+            mProgressDrawable.setBounds(iconLeft, iconTop, iconLeft + mIconSize, iconTop + mIconSize);
+            mProgressDrawable.draw(canvas);
+        } else {
+            canvas.save();
+            canvas.translate(iconCenterX, centerY);
+            canvas.rotate(mArrowRotation);
+            canvas.drawPath(mArrowPath, mArrowPaint);
+            canvas.restore();
+        }
+
+        Paint.FontMetrics fm = mTextPaint.getFontMetrics();
+        float baseline = centerY - (fm.ascent + fm.descent) / 2f;
+        canvas.drawText(TEXTS[mTextIndex], left + mIconSize + mIconMargin, baseline, mTextPaint);
+    }
+
+    @Override
+    protected boolean verifyDrawable(@NonNull Drawable who) {
+        return who == mProgressDrawable || super.verifyDrawable(who);
+    }
+
+    private void setTextIndex(int index) {
+        if (mTextIndex != index) {
+            mTextIndex = index;
+            invalidate();
+        }
+    }
+
+    private void animateArrow(float rotation) {
+        if (mArrowAnimator != null)
+            mArrowAnimator.cancel();
+        if (mArrowRotation == rotation)
+            return;
+        mArrowAnimator = ValueAnimator.ofFloat(mArrowRotation, rotation);
+        mArrowAnimator.setDuration(150);
+        mArrowAnimator.addUpdateListener(animation -> {
+            mArrowRotation = (float) animation.getAnimatedValue();
+            invalidate();
+        });
+        mArrowAnimator.start();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if (mArrowAnimator != null)
+            mArrowAnimator.cancel();
+        mProgressDrawable.stop();
+    }
+
+    @NonNull
+    public View getView() {
+        return this;//真实的视图就是自己，不能返回null
+    }
+
+    @NonNull
+    @Override
+    public SpinnerStyle getSpinnerStyle() {
+        return this.mSpinnerStyle;
+    }
+    public void setSpinnerStyle(SpinnerStyle style) {
+        this.mSpinnerStyle = style;
+    }
+
+    @Override
+    public void onStartAnimator(@NonNull RefreshLayout layout, int headHeight, int extendHeight) {
+        mProgressDrawable.start();//开始动画
+    }
+
+    @Override
+    public int onFinish(@NonNull RefreshLayout layout, boolean success) {
+        mProgressDrawable.stop();//停止动画
+        setTextIndex(success ? 3 : 4);
+        return 500;//延迟500毫秒之后再弹回
+    }
+    @Override
+    public void onStateChanged(@NonNull RefreshLayout refreshLayout, @NonNull RefreshState oldState, @NonNull RefreshState newState) {
+        switch (newState) {
+            case None:
+            case PullDownToRefresh:
+                mShowProgress = false;//显示下拉箭头
+                setTextIndex(0);
+                animateArrow(0);//还原箭头方向
+                invalidate();
+                break;
+            case Refreshing:
+                mShowProgress = true;//显示加载动画
+                setTextIndex(2);
+                invalidate();
+                break;
+            case ReleaseToRefresh:
+                setTextIndex(1);
+                animateArrow(180);//显示箭头改为朝上
+                break;
+        }
+    }
+
+    @Override
+    public boolean isSupportHorizontalDrag() {
+        return false;
+    }
+
+    @Override
+    public void onInitialized(@NonNull RefreshKernel kernel, int height, int extendHeight) {
+        mRefreshKernel = kernel;
+        mRefreshKernel.requestDrawBackgroundFor(this, mBackgroundColor);
+    }
+
+    @Override
+    public void onMoving(boolean isDragging, float percent, int offset, int height, int maxDragHeight) {
+    }
+    @Override
+    public void onHorizontalDrag(float percentX, int offsetX, int offsetMax) {
+    }
+    @Override
+    public void onReleased(@NonNull RefreshLayout refreshLayout, int height, int extendHeight) {
+    }
+
+    @Override
+    public void setPrimaryColors(@ColorInt int... colors) {
+    }
+
+    public void setPrimaryColor(@ColorInt int primaryColor) {
+        mBackgroundColor = primaryColor;
+        if (mRefreshKernel != null) {
+            mRefreshKernel.requestDrawBackgroundFor(this, primaryColor);
+        }
+    }
+    public void setAccentColor(@ColorInt int accentColor){
+        mAccentColor = accentColor;
+        applyAccentColor();
+    }
+}
@@ -0,0 +1,53 @@
+package com.imengyu.RNUiLib.smartrefresh.header;
+
+import android.graphics.Color;
+
+import com.facebook.react.uimanager.SimpleViewManager;
+import com.facebook.react.uimanager.ThemedReactContext;
+import com.facebook.react.uimanager.annotations.ReactProp;
+import com.imengyu.RNUiLib.smartrefresh.smartrefreshlayout.SpinnerStyleConstants;
+
+/**
+ * 轻量默认刷新头，见 {@link LiteHeader}
+ */
+
+public class LiteHeaderManager extends SimpleViewManager<LiteHeader> {
+    @Override
+    public String getName() {
+        return "RCTLiteHeader";
+    }
+
+    @Override
+    protected LiteHeader createViewInstance(ThemedReactContext reactContext) {
+        return new LiteHeader(reactContext);
+    }
+    /**
+     * 设置主题颜色
+     * @param view
+     * @param primaryColor
+     */
+    @ReactProp(name = "primaryColor")
+    public void setPrimaryColor(LiteHeader view,String primaryColor){
+        view.setPrimaryColor(Color.parseColor(primaryColor));
+    }
+
+    /**
+     * 设置强调颜色
+     * @param view
+     * @param accentColor
+     */
+    @ReactProp(name = "accentColor")
+    public void setAccentColor(LiteHeader view,String accentColor){
+        view.setAccentColor(Color.parseColor(accentColor));
+    }
+
+    /**
+     * 设置spinnerStyle
+     * @param view
+     * @param spinnerStyle
+     */
+    @ReactProp(name = "spinnerStyle")
+    public void setSpinnerStyle(LiteHeader view,String spinnerStyle){
+        view.setSpinnerStyle(SpinnerStyleConstants.SpinnerStyleMap.get(spinnerStyle));
+    }
+}
@@ -10,7 +10,8 @@ public enum Events {
     PULL_DOWN_TO_REFRESH("onPullDownToRefresh"),//下拉开始刷新
     RELEASE_TO_REFRESH("onReleaseToRefresh"),//释放刷新
     FOOTER_MOVING("onFooterMoving"),//footer移动时触发
-    FOOTER_RELEASED("onFooterReleased");//footer移动时触发
+    FOOTER_RELEASED("onFooterReleased"),//footer移动时触发
+    REFRESH_METRICS("onRefreshMetrics");//getRefreshMetrics 命令的返回
 
     private final String mName;
 
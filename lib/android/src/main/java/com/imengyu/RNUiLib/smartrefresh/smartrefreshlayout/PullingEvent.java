@@ -0,0 +1,62 @@
+package com.imengyu.RNUiLib.smartrefresh.smartrefreshlayout;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.uimanager.events.Event;
+import com.facebook.react.uimanager.events.RCTEventEmitter;
+
+/**
+ * Header/Footer 拖动过程中的事件
+ * 可合并：同一个视图同一帧内只会把最后一次的数据发到JS，
+ * 避免下拉时每帧几十个事件堵塞 bridge。
+ */
+public class PullingEvent extends Event<PullingEvent> {
+
+    private static final short COALESCING_KEY_HEADER = 1;
+    private static final short COALESCING_KEY_FOOTER = 2;
+
+    private final boolean isHeader;
+    private final float percent;
+    private final int offset;
+    private final int height;
+
+    /**
+     * @param surfaceId 所在的 surface
+     * @param viewTag   SmartRefreshLayout 的 id
+     * @param isHeader  是 header 下拉还是 footer 上拉
+     * @param percent   拖动百分比
+     * @param offset    拖动距离（dp）
+     * @param height    header/footer 高度（dp）
+     */
+    public PullingEvent(int surfaceId, int viewTag, boolean isHeader, float percent, int offset, int height) {
+        super(surfaceId, viewTag);
+        this.isHeader = isHeader;
+        this.percent = percent;
+        this.offset = offset;
+        this.height = height;
+    }
+
+    @Override
+    public String getEventName() {
+        return isHeader ? Events.HEADER_PULLING.toString() : Events.FOOTER_MOVING.toString();
+    }
+
+    @Override
+    public boolean canCoalesce() {
+        return true;
+    }
+
+    @Override
+    public short getCoalescingKey() {
+        return isHeader ? COALESCING_KEY_HEADER : COALESCING_KEY_FOOTER;
+    }
+
+    @Override
+    public void dispatch(RCTEventEmitter rctEventEmitter) {
+        WritableMap writableMap = Arguments.createMap();
+        writableMap.putDouble("percent", percent);
+        writableMap.putDouble("offset", offset);
+        writableMap.putDouble(isHeader ? "headerHeight" : "footerHeight", height);
+        rctEventEmitter.receiveEvent(getViewTag(), getEventName(), writableMap);
+    }
+}
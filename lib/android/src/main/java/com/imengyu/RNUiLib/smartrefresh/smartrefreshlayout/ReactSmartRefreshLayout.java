@@ -1,10 +1,35 @@
 package com.imengyu.RNUiLib.smartrefresh.smartrefreshlayout;
 
 import android.content.Context;
+import android.os.SystemClock;
 import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.view.ViewTreeObserver;
+import android.view.WindowManager;
+import android.widget.ScrollView;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.view.ScrollingView;
+import androidx.core.view.ViewCompat;
+
+import com.facebook.react.bridge.ReactContext;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.uimanager.UIManagerHelper;
+import com.facebook.react.uimanager.events.EventDispatcher;
 import com.facebook.react.uimanager.events.NativeGestureUtil;
+import com.facebook.react.uimanager.events.RCTEventEmitter;
+import com.imengyu.RNUiLib.smartrefresh.header.AnyHeader;
+import com.imengyu.RNUiLib.smartrefresh.header.HeaderAnimation;
+import com.imengyu.RNUiLib.utils.DensityUtil;
+import com.imengyu.RNUiLib.smartrefresh.footer.AnyFooter;
 import com.scwang.smart.refresh.layout.SmartRefreshLayout;
+import com.scwang.smart.refresh.layout.api.RefreshLayout;
+import com.scwang.smart.refresh.layout.constant.RefreshState;
+import com.scwang.smart.refresh.layout.listener.ScrollBoundaryDecider;
 
 /**
  * Created by painter.g on 2018/3/7.
@@ -16,11 +41,332 @@ public class ReactSmartRefreshLayout extends SmartRefreshLayout {
     private boolean mDidLayout = false;
     private boolean mRefreshing = false;
     private float mProgressViewOffset = 0;
-    private int mTouchSlop;
+    private static final int GESTURE_NONE = 0;
+    private static final int GESTURE_VERTICAL = 1;
+    private static final int GESTURE_HORIZONTAL = 2;
+    //与水平方向夹角大于45度判定为纵向手势
+    private static final float DIRECTION_LOCK_TANGENT = 1f;
+
+    private final int mTouchSlop;
     private float mPrevTouchX;
-    private boolean mIntercepted;
+    private float mPrevTouchY;
+    private int mGestureDirection = GESTURE_NONE;
+    private boolean mGestureReported = false;
+    private final float mDensity;
+    private int mPullEventThrottle = 0;
+    private long mLastHeaderPullingTime = 0;
+    private long mLastFooterMovingTime = 0;
+    private HeaderAnimation mHeaderPullAnimation;
+    private AnyHeader mWrapperHeader;
+    private int mHeaderFinishDelay = AnyHeader.DEFAULT_FINISH_DELAY;
+    private int mHeaderFinishDelaySkipAfter = 0;
+    private int mHeaderFinishDelayMin = 0;
+    private View mContentView;
+    private View mScrollableView;
+    //内容中没有可滚动视图时不在每次触摸移动时重新查找，视图树布局变化后再查找
+    private boolean mScrollableViewSearched = false;
+    private boolean mLoadMoreEnabled;//可能在父类构造函数中被设置，不能有初始值
+    private boolean mNoMoreData;
+    private boolean mPrefetchLoading = false;
+    private int mPrefetchDistance = 0;
+    private final RefreshMetrics mMetrics;
+    private boolean mNestedScrollContent = false;
+    /**
+     * 直接判断缓存的可滚动视图是否到达边界，
+     * 代替默认实现中每次触摸移动都按触摸点遍历内容视图树的查找
+     */
+    private final ScrollBoundaryDecider mScrollBoundaryDecider = new ScrollBoundaryDecider() {
+        @Override
+        public boolean canRefresh(View content) {
+            View scrollableView = getScrollableView();
+            return !(scrollableView != null ? scrollableView : content).canScrollVertically(-1);
+        }
+
+        @Override
+        public boolean canLoadMore(View content) {
+            View scrollableView = getScrollableView();
+            return !(scrollableView != null ? scrollableView : content).canScrollVertically(1);
+        }
+    };
+    private final ViewTreeObserver.OnScrollChangedListener mOnScrollChangedListener = new ViewTreeObserver.OnScrollChangedListener() {
+        @Override
+        public void onScrollChanged() {
+            checkPrefetchLoadMore();
+        }
+    };
+
+    private final ViewTreeObserver.OnGlobalLayoutListener mOnGlobalLayoutListener = new ViewTreeObserver.OnGlobalLayoutListener() {
+        @Override
+        public void onGlobalLayout() {
+            //视图层级只会在布局时变化，在这里检查缓存的视图，触摸移动时直接使用缓存
+            if (mScrollableView != null && !isInContent(mScrollableView))
+                mScrollableView = null;
+            if (mScrollableView == null)
+                mScrollableViewSearched = false;
+        }
+    };
+
     public ReactSmartRefreshLayout(Context context) {
         super(context);
+        mTouchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
+        mDensity = context.getResources().getDisplayMetrics().density;
+        WindowManager windowManager = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
+        mMetrics = new RefreshMetrics(windowManager != null ? windowManager.getDefaultDisplay().getRefreshRate() : 60f);
+    }
+
+    /**
+     * 获取当前视图的刷新耗时统计
+     */
+    public RefreshMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * 设置拖动事件的最小发送间隔（ms），0 表示每帧最多一次
+     */
+    public void setPullEventThrottle(int pullEventThrottle) {
+        mPullEventThrottle = Math.max(0, pullEventThrottle);
+    }
+
+    /**
+     * 设置包装自定义刷新头时使用的下拉动画
+     */
+    public void setHeaderPullAnimation(HeaderAnimation animation) {
+        mHeaderPullAnimation = animation;
+        if (mWrapperHeader != null)
+            mWrapperHeader.setPullAnimation(animation);
+    }
+
+    /**
+     * 设置包装自定义刷新头时刷新完成后的停留时间（ms）
+     */
+    public void setHeaderFinishDelay(int finishDelay) {
+        mHeaderFinishDelay = finishDelay;
+        if (mWrapperHeader != null)
+            mWrapperHeader.setFinishDelay(finishDelay);
+    }
+
+    /**
+     * 设置包装自定义刷新头时的自适应停留时间，见 {@link AnyHeader#setAdaptiveFinishDelay(int, int)}
+     */
+    public void setHeaderAdaptiveFinishDelay(int skipAfter, int minDelay) {
+        mHeaderFinishDelaySkipAfter = skipAfter;
+        mHeaderFinishDelayMin = minDelay;
+        if (mWrapperHeader != null)
+            mWrapperHeader.setAdaptiveFinishDelay(skipAfter, minDelay);
+    }
+
+    /**
+     * 设置包装普通视图生成的刷新头，并应用当前的下拉动画
+     */
+    public void setWrapperHeader(AnyHeader header) {
+        mWrapperHeader = header;
+        header.setPullAnimation(mHeaderPullAnimation);
+        header.setFinishDelay(mHeaderFinishDelay);
+        header.setAdaptiveFinishDelay(mHeaderFinishDelaySkipAfter, mHeaderFinishDelayMin);
+        setRefreshHeader(header);
+    }
+
+    /**
+     * 设置包装普通视图生成的加载更多 Footer
+     */
+    public void setWrapperFooter(AnyFooter footer) {
+        setRefreshFooter(footer);
+    }
+
+    /**
+     * 设置内容视图，加载更多的预取会在其中查找可滚动的视图
+     */
+    public void setContentView(View content) {
+        mContentView = content;
+        mScrollableView = null;
+        mScrollableViewSearched = false;
+        setRefreshContent(content);
+        setScrollBoundaryDecider(mScrollBoundaryDecider);
+    }
+
+    /**
+     * 设置是否通过嵌套滚动协议接收内容的越界滚动。
+     * 开启后内容中的 ScrollView 滚动到边界时会把剩余的滚动直接交给刷新布局，
+     * 不需要在每次触摸移动时再去判断内容的滚动状态。
+     */
+    public void setNestedScrollContent(boolean nestedScrollContent) {
+        mNestedScrollContent = nestedScrollContent;
+        setEnableNestedScroll(nestedScrollContent);
+        View scrollableView = getScrollableView();
+        if (scrollableView != null)
+            ViewCompat.setNestedScrollingEnabled(scrollableView, nestedScrollContent);
+    }
+
+    /**
+     * 获取内容中的可滚动视图，找到后会缓存。
+     * 布局变化时检查缓存的视图是否已经从内容中移除（例如 RN 重新渲染了列表），移除后或者没有找到时在下一次调用时重新查找
+     */
+    @Nullable
+    private View getScrollableView() {
+        if (mScrollableView == null && !mScrollableViewSearched && mContentView != null) {
+            mScrollableViewSearched = true;
+            mScrollableView = findScrollableView(mContentView);
+            if (mScrollableView != null && mNestedScrollContent)
+                ViewCompat.setNestedScrollingEnabled(mScrollableView, true);
+        }
+        return mScrollableView;
+    }
+
+    /**
+     * 设置预取距离（dp），内容离底部小于该距离时提前触发加载更多，0 表示只在拉到底部时触发
+     */
+    public void setPrefetchDistance(float prefetchDistance) {
+        mPrefetchDistance = Math.max(0, (int) (prefetchDistance * mDensity + 0.5f));
+    }
+
+    @Override
+    public RefreshLayout setEnableLoadMore(boolean enabled) {
+        mLoadMoreEnabled = enabled;
+        return super.setEnableLoadMore(enabled);
+    }
+
+    @Override
+    public RefreshLayout setNoMoreData(boolean noMoreData) {
+        mNoMoreData = noMoreData;
+        return super.setNoMoreData(noMoreData);
+    }
+
+    /**
+     * 当前是否有一个由预取触发、还没有 finishLoadMore 的加载
+     */
+    public boolean isPrefetchLoading() {
+        return mPrefetchLoading;
+    }
+
+    /**
+     * JS 调用 finishLoadMore 时调用，结束本次加载
+     */
+    public void onLoadMoreFinished(boolean noMoreData) {
+        mPrefetchLoading = false;
+        mNoMoreData = noMoreData;
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        getViewTreeObserver().addOnScrollChangedListener(mOnScrollChangedListener);
+        getViewTreeObserver().addOnGlobalLayoutListener(mOnGlobalLayoutListener);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        getViewTreeObserver().removeOnScrollChangedListener(mOnScrollChangedListener);
+        getViewTreeObserver().removeOnGlobalLayoutListener(mOnGlobalLayoutListener);
+        mScrollableView = null;
+        mScrollableViewSearched = false;
+        mMetrics.stopFrameMonitor();
+        super.onDetachedFromWindow();
+    }
+
+    /**
+     * 内容滚动时检查离底部的距离，小于预取距离时提前发送 LOAD_MORE
+     */
+    private void checkPrefetchLoadMore() {
+        if (mPrefetchDistance <= 0 || !mLoadMoreEnabled || mNoMoreData || mPrefetchLoading
+                || getState() != RefreshState.None)
+            return;
+        View scrollableView = getScrollableView();
+        if (scrollableView == null)
+            return;
+        int remaining = getRemainingScrollDistance(scrollableView);
+        if (remaining >= 0 && remaining <= mPrefetchDistance) {
+            mPrefetchLoading = true;
+            emitEvent(Events.LOAD_MORE, null);
+        }
+    }
+
+    /**
+     * 视图是否仍然在内容视图中并且已经添加到窗口
+     */
+    private boolean isInContent(View view) {
+        if (!ViewCompat.isAttachedToWindow(view))
+            return false;
+        View current = view;
+        while (current != null) {
+            if (current == mContentView)
+                return true;
+            ViewParent parent = current.getParent();
+            current = parent instanceof View ? (View) parent : null;
+        }
+        return false;
+    }
+
+    private static View findScrollableView(@NonNull View view) {
+        if (view instanceof ScrollingView || view instanceof ScrollView)
+            return view;
+        if (view instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                View result = findScrollableView(group.getChildAt(i));
+                if (result != null)
+                    return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 获取可滚动视图离底部还有多少距离（px），无法计算时返回 -1
+     */
+    private static int getRemainingScrollDistance(@NonNull View view) {
+        if (view instanceof ScrollingView) {
+            ScrollingView scrollingView = (ScrollingView) view;
+            return scrollingView.computeVerticalScrollRange()
+                    - scrollingView.computeVerticalScrollOffset()
+                    - scrollingView.computeVerticalScrollExtent();
+        }
+        if (view instanceof ScrollView) {
+            ScrollView scrollView = (ScrollView) view;
+            if (scrollView.getChildCount() == 0)
+                return -1;
+            View child = scrollView.getChildAt(0);
+            return child.getBottom() + scrollView.getPaddingBottom() - scrollView.getScrollY() - scrollView.getHeight();
+        }
+        return -1;
+    }
+
+    /**
+     * px 转 dp，使用创建时缓存的屏幕密度
+     */
+    public int px2dip(float pxValue) {
+        return DensityUtil.px2dip(mDensity, pxValue);
+    }
+
+    /**
+     * 以当前视图的 id 向 JS 发送事件，使用视图自己的 context，
+     * 不依赖 ViewManager 中保存的任何状态。
+     */
+    public void emitEvent(Events event, @Nullable WritableMap data) {
+        ((ReactContext) getContext()).getJSModule(RCTEventEmitter.class)
+                .receiveEvent(getId(), event.toString(), data);
+    }
+
+    /**
+     * 发送 header/footer 拖动事件。
+     * 事件通过 EventDispatcher 发送，同一帧内的多个事件会被合并为最后一个；
+     * 设置了 pullEventThrottle 时还会按间隔丢弃中间的事件，回到原位（offset 为 0）的事件总是发送。
+     */
+    public void dispatchPullingEvent(boolean isHeader, float percent, int offset, int height) {
+        if (mPullEventThrottle > 0 && offset != 0) {
+            long now = SystemClock.uptimeMillis();
+            long last = isHeader ? mLastHeaderPullingTime : mLastFooterMovingTime;
+            if (now - last < mPullEventThrottle)
+                return;
+            if (isHeader) mLastHeaderPullingTime = now;
+            else mLastFooterMovingTime = now;
+        }
+
+        EventDispatcher eventDispatcher = UIManagerHelper.getEventDispatcherForReactTag((ReactContext) getContext(), getId());
+        if (eventDispatcher != null) {
+            eventDispatcher.dispatchEvent(new PullingEvent(UIManagerHelper.getSurfaceId(this), getId(),
+                    isHeader, percent, px2dip(offset), px2dip(height)));
+        }
     }
 
     @Override
@@ -44,31 +390,54 @@ public class ReactSmartRefreshLayout extends SmartRefreshLayout {
     }
 
     @Override
-    public boolean onInterceptTouchEvent(MotionEvent ev) {
-        if (shouldInterceptTouchEvent(ev) && super.onInterceptTouchEvent(ev)) {
+    public boolean dispatchTouchEvent(MotionEvent ev) {
+        trackGestureDirection(ev);
+        boolean handled = super.dispatchTouchEvent(ev);
+        //刷新布局自己开始拖动时，通知 RN 取消 JS 响应者，每个手势只通知一次
+        if (!mGestureReported && mGestureDirection == GESTURE_VERTICAL && getState().isDragging) {
+            mGestureReported = true;
             NativeGestureUtil.notifyNativeGestureStarted(this, ev);
+        }
+        return handled;
+    }
+
+    @Override
+    public boolean onInterceptTouchEvent(MotionEvent ev) {
+        //已经判定为横向手势时直接放行，交给外层的 ViewPager 等处理
+        if (mGestureDirection == GESTURE_HORIZONTAL)
+            return false;
+        if (super.onInterceptTouchEvent(ev)) {
+            if (!mGestureReported) {
+                mGestureReported = true;
+                NativeGestureUtil.notifyNativeGestureStarted(this, ev);
+            }
             return true;
         }
         return false;
     }
 
-
-    private boolean shouldInterceptTouchEvent(MotionEvent ev) {
-        switch (ev.getAction()) {
+    /**
+     * 手势方向判定：移动距离超过系统的 touchSlop 后，按移动角度锁定为横向或纵向，
+     * 同一个手势只判定一次。
+     */
+    private void trackGestureDirection(MotionEvent ev) {
+        switch (ev.getActionMasked()) {
             case MotionEvent.ACTION_DOWN:
                 mPrevTouchX = ev.getX();
-                mIntercepted = false;
+                mPrevTouchY = ev.getY();
+                mGestureDirection = GESTURE_NONE;
+                mGestureReported = false;
                 break;
 
             case MotionEvent.ACTION_MOVE:
-                final float eventX = ev.getX();
-                final float xDiff = Math.abs(eventX - mPrevTouchX);
-
-                if (mIntercepted || xDiff > mTouchSlop) {
-                    mIntercepted = true;
-                    return false;
+                if (mGestureDirection != GESTURE_NONE)
+                    break;
+                final float xDiff = Math.abs(ev.getX() - mPrevTouchX);
+                final float yDiff = Math.abs(ev.getY() - mPrevTouchY);
+                if (xDiff * xDiff + yDiff * yDiff > mTouchSlop * mTouchSlop) {
+                    mGestureDirection = yDiff >= xDiff * DIRECTION_LOCK_TANGENT ? GESTURE_VERTICAL : GESTURE_HORIZONTAL;
                 }
+                break;
         }
-        return true;
     }
 }
@@ -0,0 +1,168 @@
+package com.imengyu.RNUiLib.smartrefresh.smartrefreshlayout;
+
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+import com.scwang.smart.refresh.layout.constant.RefreshState;
+
+/**
+ * SmartRefreshLayout 刷新过程的耗时统计
+ * 所有时间都使用单调时钟（SystemClock.elapsedRealtimeNanos），不受系统时间修改影响。
+ * 只在UI线程中使用。
+ *
+ * 统计项：
+ * firstPull      视图创建到第一次手指下拉
+ * refresh        进入刷新状态到 JS 调用 finishRefresh
+ * finish         JS 调用 finishRefresh 到 Header 完全收回（包含延时、停留和回弹动画）
+ * droppedFrames  手指拖动过程中掉的帧数
+ */
+public class RefreshMetrics implements Choreographer.FrameCallback {
+
+    private static final long NO_TIME = -1;
+
+    /**
+     * 一项耗时的聚合数据
+     */
+    private static class Stat {
+        int count = 0;
+        long totalNanos = 0;
+        long minNanos = Long.MAX_VALUE;
+        long maxNanos = 0;
+
+        void add(long nanos) {
+            count++;
+            totalNanos += nanos;
+            minNanos = Math.min(minNanos, nanos);
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        WritableMap toMap() {
+            WritableMap map = Arguments.createMap();
+            map.putInt("count", count);
+            map.putDouble("total", nanosToMillis(totalNanos));
+            map.putDouble("average", count == 0 ? 0 : nanosToMillis(totalNanos / count));
+            map.putDouble("min", count == 0 ? 0 : nanosToMillis(minNanos));
+            map.putDouble("max", nanosToMillis(maxNanos));
+            return map;
+        }
+    }
+
+    private final long createTime = SystemClock.elapsedRealtimeNanos();
+    private long firstPullNanos = NO_TIME;
+    private long refreshStartTime = NO_TIME;
+    private long finishStartTime = NO_TIME;
+    private Stat refreshStat = new Stat();
+    private Stat finishStat = new Stat();
+
+    private final long frameIntervalNanos;
+    private boolean frameMonitoring = false;
+    private long lastFrameTime = NO_TIME;
+    private int draggingFrames = 0;
+    private int droppedFrames = 0;
+
+    /**
+     * @param refreshRate 屏幕刷新率，用于判断掉帧
+     */
+    public RefreshMetrics(float refreshRate) {
+        frameIntervalNanos = (long) (1000000000L / (refreshRate > 0 ? refreshRate : 60f));
+    }
+
+    /**
+     * Header 移动时调用
+     */
+    public void onHeaderMoving(boolean isDragging) {
+        if (isDragging && firstPullNanos == NO_TIME)
+            firstPullNanos = SystemClock.elapsedRealtimeNanos() - createTime;
+    }
+
+    /**
+     * JS 调用 finishRefresh 时调用
+     */
+    public void onFinishRefreshCalled() {
+        long now = SystemClock.elapsedRealtimeNanos();
+        if (refreshStartTime != NO_TIME) {
+            refreshStat.add(now - refreshStartTime);
+            refreshStartTime = NO_TIME;
+            finishStartTime = now;
+        }
+    }
+
+    /**
+     * 刷新状态改变时调用
+     */
+    public void onStateChanged(RefreshState newState) {
+        switch (newState) {
+            case Refreshing:
+                refreshStartTime = SystemClock.elapsedRealtimeNanos();
+                break;
+            case None:
+                if (finishStartTime != NO_TIME) {
+                    finishStat.add(SystemClock.elapsedRealtimeNanos() - finishStartTime);
+                    finishStartTime = NO_TIME;
+                }
+                break;
+        }
+        if (newState.isDragging)
+            startFrameMonitor();
+        else
+            stopFrameMonitor();
+    }
+
+    private void startFrameMonitor() {
+        if (frameMonitoring)
+            return;
+        frameMonitoring = true;
+        lastFrameTime = NO_TIME;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    /**
+     * 停止掉帧统计，视图销毁时也需要调用
+     */
+    public void stopFrameMonitor() {
+        if (!frameMonitoring)
+            return;
+        frameMonitoring = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!frameMonitoring)
+            return;
+        if (lastFrameTime != NO_TIME) {
+            long skipped = (frameTimeNanos - lastFrameTime) / frameIntervalNanos - 1;
+            if (skipped > 0)
+                droppedFrames += skipped;
+        }
+        draggingFrames++;
+        lastFrameTime = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    /**
+     * 输出聚合数据
+     * @param reset 输出后是否清空已有数据
+     */
+    public WritableMap toMap(boolean reset) {
+        WritableMap map = Arguments.createMap();
+        map.putDouble("firstPull", firstPullNanos == NO_TIME ? -1 : nanosToMillis(firstPullNanos));
+        map.putMap("refresh", refreshStat.toMap());
+        map.putMap("finish", finishStat.toMap());
+        map.putInt("draggingFrames", draggingFrames);
+        map.putInt("droppedFrames", droppedFrames);
+        if (reset) {
+            refreshStat = new Stat();
+            finishStat = new Stat();
+            draggingFrames = 0;
+            droppedFrames = 0;
+        }
+        return map;
+    }
+
+    private static double nanosToMillis(long nanos) {
+        return nanos / 1000000.0;
+    }
+}
@@ -13,9 +13,9 @@ import com.facebook.react.common.MapBuilder;
 import com.facebook.react.uimanager.ThemedReactContext;
 import com.facebook.react.uimanager.ViewGroupManager;
 import com.facebook.react.uimanager.annotations.ReactProp;
-import com.facebook.react.uimanager.events.RCTEventEmitter;
+import com.imengyu.RNUiLib.smartrefresh.footer.AnyFooter;
 import com.imengyu.RNUiLib.smartrefresh.header.AnyHeader;
-import com.imengyu.RNUiLib.utils.DensityUtil;
+import com.imengyu.RNUiLib.smartrefresh.header.HeaderAnimation;
 import com.scwang.smart.refresh.layout.api.RefreshFooter;
 import com.scwang.smart.refresh.layout.api.RefreshHeader;
 import com.scwang.smart.refresh.layout.api.RefreshLayout;
@@ -38,12 +38,12 @@ public class SmartRefreshLayoutManager extends ViewGroupManager<ReactSmartRefres
     //返回给rn的组件名
     protected static final String REACT_CLASS = "SmartRefreshLayout";
 
-    private ReactSmartRefreshLayout smartRefreshLayout;
-    private RCTEventEmitter mEventEmitter;
-    private ThemedReactContext themedReactContext;
-
     private static final String COMMAND_FINISH_REFRESH_NAME = "finishRefresh";
     private static final int COMMAND_FINISH_REFRESH_ID = 1;
+    private static final String COMMAND_FINISH_LOAD_MORE_NAME = "finishLoadMore";
+    private static final int COMMAND_FINISH_LOAD_MORE_ID = 2;
+    private static final String COMMAND_GET_REFRESH_METRICS_NAME = "getRefreshMetrics";
+    private static final int COMMAND_GET_REFRESH_METRICS_ID = 3;
 
     @NonNull
     @Override
@@ -54,10 +54,8 @@ public class SmartRefreshLayoutManager extends ViewGroupManager<ReactSmartRefres
     @NonNull
     @Override
     protected ReactSmartRefreshLayout createViewInstance(@NonNull ThemedReactContext reactContext) {
-        smartRefreshLayout = new ReactSmartRefreshLayout(reactContext);
-        smartRefreshLayout.setEnableLoadMore(false);//暂时禁止上拉加载
-        themedReactContext = reactContext;
-        mEventEmitter = reactContext.getJSModule(RCTEventEmitter.class);
+        ReactSmartRefreshLayout smartRefreshLayout = new ReactSmartRefreshLayout(reactContext);
+        smartRefreshLayout.setEnableLoadMore(false);//默认禁止上拉加载，由 enableLoadMore 属性开启
         return smartRefreshLayout;
     }
 
@@ -73,7 +71,9 @@ public class SmartRefreshLayoutManager extends ViewGroupManager<ReactSmartRefres
     @Override
     public Map<String, Integer> getCommandsMap() {
         return MapBuilder.of(
-                COMMAND_FINISH_REFRESH_NAME, COMMAND_FINISH_REFRESH_ID
+                COMMAND_FINISH_REFRESH_NAME, COMMAND_FINISH_REFRESH_ID,
+                COMMAND_FINISH_LOAD_MORE_NAME, COMMAND_FINISH_LOAD_MORE_ID,
+                COMMAND_GET_REFRESH_METRICS_NAME, COMMAND_GET_REFRESH_METRICS_ID
         );
     }
     /**
@@ -129,6 +129,61 @@ public class SmartRefreshLayoutManager extends ViewGroupManager<ReactSmartRefres
 
         }
     }
+    /**
+     * 下拉/上拉过程事件的最小发送间隔（ms），默认0，即每帧最多发送一次
+     */
+    @ReactProp(name = "pullEventThrottle", defaultInt = 0)
+    public void setPullEventThrottle(ReactSmartRefreshLayout view, int pullEventThrottle) {
+        view.setPullEventThrottle(pullEventThrottle);
+    }
+    /**
+     * 自定义刷新头（非 RefreshHeader 的普通视图）的下拉动画描述
+     */
+    @ReactProp(name = "headerPullAnimation")
+    public void setHeaderPullAnimation(ReactSmartRefreshLayout view, ReadableMap headerPullAnimation) {
+        view.setHeaderPullAnimation(HeaderAnimation.fromReadableMap(headerPullAnimation));
+    }
+    /**
+     * 自定义刷新头刷新完成后停留多久再弹回（ms）
+     */
+    @ReactProp(name = "headerFinishDelay", defaultInt = AnyHeader.DEFAULT_FINISH_DELAY)
+    public void setHeaderFinishDelay(ReactSmartRefreshLayout view, int headerFinishDelay) {
+        view.setHeaderFinishDelay(headerFinishDelay);
+    }
+    /**
+     * 自定义刷新头的自适应停留时间 { skipAfter, minDelay }
+     */
+    @ReactProp(name = "headerAdaptiveFinishDelay")
+    public void setHeaderAdaptiveFinishDelay(ReactSmartRefreshLayout view, ReadableMap headerAdaptiveFinishDelay) {
+        if (headerAdaptiveFinishDelay == null) {
+            view.setHeaderAdaptiveFinishDelay(0, 0);
+            return;
+        }
+        view.setHeaderAdaptiveFinishDelay(
+                headerAdaptiveFinishDelay.hasKey("skipAfter") ? headerAdaptiveFinishDelay.getInt("skipAfter") : 0,
+                headerAdaptiveFinishDelay.hasKey("minDelay") ? headerAdaptiveFinishDelay.getInt("minDelay") : 0);
+    }
+    /**
+     * 是否通过嵌套滚动协议接收内容（ScrollView/FlatList）的越界滚动
+     */
+    @ReactProp(name = "nestedScrollContent", defaultBoolean = false)
+    public void setNestedScrollContent(ReactSmartRefreshLayout view, boolean nestedScrollContent) {
+        view.setNestedScrollContent(nestedScrollContent);
+    }
+    /**
+     * 是否启用上拉加载更多功能
+     */
+    @ReactProp(name = "enableLoadMore", defaultBoolean = false)
+    public void setEnableLoadMore(ReactSmartRefreshLayout view, boolean enableLoadMore) {
+        view.setEnableLoadMore(enableLoadMore);
+    }
+    /**
+     * 加载更多的预取距离（dp），内容离底部小于该距离时提前触发 onLoadMore
+     */
+    @ReactProp(name = "prefetchDistance", defaultFloat = 0f)
+    public void setPrefetchDistance(ReactSmartRefreshLayout view, float prefetchDistance) {
+        view.setPrefetchDistance(prefetchDistance);
+    }
     /**
      * 是否启用下拉刷新功能
      */
@@ -163,11 +218,27 @@ public class SmartRefreshLayoutManager extends ViewGroupManager<ReactSmartRefres
             int delayed = args.getInt(0);
             boolean success = args.getBoolean(1);
             boolean noMoreData = args.getBoolean(2);
+            root.getMetrics().onFinishRefreshCalled();
             if (delayed >= 0) {
                 root.finishRefresh(delayed, success, noMoreData);
             } else {
                 root.finishRefresh(success);
             }
+        } else if (args != null && commandId.equals(String.valueOf(COMMAND_FINISH_LOAD_MORE_ID))) {
+            int delayed = args.getInt(0);
+            boolean success = args.getBoolean(1);
+            boolean noMoreData = args.getBoolean(2);
+            root.onLoadMoreFinished(noMoreData);
+            if (delayed >= 0) {
+                root.finishLoadMore(delayed, success, noMoreData);
+            } else if (noMoreData) {
+                root.finishLoadMoreWithNoMoreData();
+            } else {
+                root.finishLoadMore(success);
+            }
+        } else if (commandId.equals(String.valueOf(COMMAND_GET_REFRESH_METRICS_ID))) {
+            boolean reset = args != null && args.size() > 0 && args.getBoolean(0);
+            root.emitEvent(Events.REFRESH_METRICS, root.getMetrics().toMap(reset));
         }
 
         super.receiveCommand(root, commandId, args);
@@ -177,22 +248,26 @@ public class SmartRefreshLayoutManager extends ViewGroupManager<ReactSmartRefres
     public void addView(ReactSmartRefreshLayout parent, View child, int index) {
         switch (index){
             case 0:
-                RefreshHeader header;
                 if(child instanceof RefreshHeader){
-                    header = (RefreshHeader)child;
+                    parent.setRefreshHeader((RefreshHeader)child);
                 }else{
-                    header = new AnyHeader(themedReactContext);
-                    ((AnyHeader)header).setView(child);
+                    AnyHeader header = new AnyHeader(parent.getContext());
+                    header.setView(child);
+                    parent.setWrapperHeader(header);
                 }
-                parent.setRefreshHeader(header);
-                //parent.setRefreshHeader(new MaterialHeader(themedReactContext).setShowBezierWave(true));
+                //parent.setRefreshHeader(new MaterialHeader(parent.getContext()).setShowBezierWave(true));
                 break;
             case 1:
-                parent.setRefreshContent(child);
+                parent.setContentView(child);
                 break;
             case 2:
-                //RefreshFooter footer=(RefreshFooter)child;
-                //parent.setRefreshFooter(footer);
+                if(child instanceof RefreshFooter){
+                    parent.setRefreshFooter((RefreshFooter)child);
+                }else{
+                    AnyFooter footer = new AnyFooter(parent.getContext());
+                    footer.setView(child);
+                    parent.setWrapperFooter(footer);
+                }
                 break;
             default:
                 break;
@@ -223,26 +298,18 @@ public class SmartRefreshLayoutManager extends ViewGroupManager<ReactSmartRefres
             }
         });
         view.setOnMultiListener(new OnMultiListener() {
-            private int getTargetId(){
-                return view.getId();
-            }
-
             @Override
             public void onHeaderMoving(RefreshHeader header, boolean isDragging, float percent, int offset, int headerHeight, int maxDragHeight) {
-                WritableMap writableMap = Arguments.createMap();
-                writableMap.putDouble("percent",percent);
-                writableMap.putDouble("offset", DensityUtil.px2dip(reactContext, offset));
-                writableMap.putDouble("headerHeight", DensityUtil.px2dip(reactContext, headerHeight));
-                mEventEmitter.receiveEvent(getTargetId(),Events.HEADER_PULLING.toString(),writableMap);
-
+                view.getMetrics().onHeaderMoving(isDragging);
+                view.dispatchPullingEvent(true, percent, offset, headerHeight);
             }
 
             @Override
             public void onHeaderReleased(RefreshHeader header, int headerHeight, int extendHeight) {
                 WritableMap writableMap = Arguments.createMap();
-                writableMap.putDouble("headerHeight", DensityUtil.px2dip(reactContext, headerHeight));
-                writableMap.putDouble("extendHeight", DensityUtil.px2dip(reactContext, extendHeight));
-                mEventEmitter.receiveEvent(getTargetId(),Events.HEADER_RELEASED.toString(),writableMap);
+                writableMap.putDouble("headerHeight", view.px2dip(headerHeight));
+                writableMap.putDouble("extendHeight", view.px2dip(extendHeight));
+                view.emitEvent(Events.HEADER_RELEASED, writableMap);
             }
 
 
@@ -258,19 +325,15 @@ public class SmartRefreshLayoutManager extends ViewGroupManager<ReactSmartRefres
 
             @Override
             public void onFooterMoving(RefreshFooter footer, boolean isDragging, float percent, int offset, int footerHeight, int maxDragHeight) {
-                WritableMap writableMap = Arguments.createMap();
-                writableMap.putDouble("percent",percent);
-                writableMap.putDouble("offset",DensityUtil.px2dip(reactContext, offset));
-                writableMap.putDouble("footerHeight",DensityUtil.px2dip(reactContext, footerHeight));
-                mEventEmitter.receiveEvent(getTargetId(), Events.FOOTER_MOVING.toString(),writableMap);
+                view.dispatchPullingEvent(false, percent, offset, footerHeight);
             }
 
             @Override
             public void onFooterReleased(RefreshFooter footer, int footerHeight, int maxDragHeight) {
                 WritableMap writableMap = Arguments.createMap();
-                writableMap.putDouble("maxDragHeight",DensityUtil.px2dip(reactContext, maxDragHeight));
-                writableMap.putDouble("footerHeight",DensityUtil.px2dip(reactContext, footerHeight));
-                mEventEmitter.receiveEvent(getTargetId(), Events.FOOTER_RELEASED.toString(),writableMap);
+                writableMap.putDouble("maxDragHeight",view.px2dip(maxDragHeight));
+                writableMap.putDouble("footerHeight",view.px2dip(footerHeight));
+                view.emitEvent(Events.FOOTER_RELEASED, writableMap);
             }
 
             @Override
@@ -285,34 +348,34 @@ public class SmartRefreshLayoutManager extends ViewGroupManager<ReactSmartRefres
 
             @Override
             public void onLoadMore(@NonNull RefreshLayout refreshLayout) {
-                mEventEmitter.receiveEvent(getTargetId(),Events.LOAD_MORE.toString(),null);
+                //预取已经触发过加载，Footer 只需显示加载中，等待 finishLoadMore
+                if (view.isPrefetchLoading())
+                    return;
+                view.emitEvent(Events.LOAD_MORE, null);
             }
 
             @Override
             public void onRefresh(@NonNull RefreshLayout refreshLayout) {
-                mEventEmitter.receiveEvent(getTargetId(),Events.REFRESH.toString(),null);
+                view.emitEvent(Events.REFRESH, null);
             }
 
             @Override
             public void onStateChanged(@NonNull RefreshLayout refreshLayout, @NonNull RefreshState oldState, @NonNull RefreshState newState) {
+                view.getMetrics().onStateChanged(newState);
                 switch (newState) {
                     case None:
                     case PullDownToRefresh:
-                        mEventEmitter.receiveEvent(getTargetId(),Events.PULL_DOWN_TO_REFRESH.toString(),null);
+                        view.emitEvent(Events.PULL_DOWN_TO_REFRESH, null);
                         break;
                     case Refreshing:
 
                         break;
                     case ReleaseToRefresh:
-                        mEventEmitter.receiveEvent(getTargetId(),Events.RELEASE_TO_REFRESH.toString(),null);
+                        view.emitEvent(Events.RELEASE_TO_REFRESH, null);
                         break;
                 }
 
             }
         });
     }
-
-    private int getTargetId(){
-        return smartRefreshLayout.getId();
-    }
 }
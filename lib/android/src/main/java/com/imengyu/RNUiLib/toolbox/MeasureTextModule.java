@@ -15,6 +15,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.core.content.FileProvider;
 
+import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.Callback;
 import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
@@ -22,6 +23,7 @@ import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.bridge.WritableNativeMap;
 import com.facebook.react.modules.core.DeviceEventManagerModule;
@@ -29,8 +31,8 @@ import com.facebook.react.views.text.ReactFontManager;
 import com.hjq.permissions.OnPermissionPageCallback;
 import com.hjq.permissions.XXPermissions;
 import com.imengyu.RNUiLib.utils.CacheUtils;
-import com.imengyu.RNUiLib.utils.ClearCacheAsyncTask;
 import com.imengyu.RNUiLib.utils.FileUtils;
+import com.imengyu.RNUiLib.utils.TextMeasurer;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -40,6 +42,8 @@ import java.util.Map;
 import java.util.Objects;
 
 public class MeasureTextModule extends ReactContextBaseJavaModule {
+  private static final double DEFAULT_SYNC_TIME_BUDGET = 8;
+
   private final ReactApplicationContext reactContext;
 
   @NonNull
@@ -53,46 +57,171 @@ public class MeasureTextModule extends ReactContextBaseJavaModule {
     reactContext = context;
   }
 
+  @ReactMethod
+  public void measureText(ReadableMap options, Callback callback) {
+    String text = options.getString("text");
+    float fontSize = (float)options.getDouble("fontSize");
+    String fontFamily = options.getString("fontFamily");
+    String fontWeight = options.getString("fontWeight");
+
+    callback.invoke(TextMeasurer.getInstance(reactContext).measureWidth(text, fontSize, fontFamily, fontWeight));
+  }
+
+  private static String[] readTexts(ReadableMap options) {
+    String[] texts = null;
+    if (options.hasKey("texts")) {
+      ReadableArray array = options.getArray("texts");
+      texts = new String[array.size()];
+      for (int i = 0; i < texts.length; i++)
+        texts[i] = array.getString(i);
+    } else if (options.hasKey("packed") && options.hasKey("offsets")) {
+      String packed = options.getString("packed");
+      ReadableArray offsets = options.getArray("offsets");
+      texts = new String[offsets.size()];
+      int start = 0;
+      for (int i = 0; i < texts.length; i++) {
+        int end = Math.min(packed.length(), Math.max(start, offsets.getInt(i)));
+        texts[i] = packed.substring(start, end);
+        start = end;
+      }
+    }
+    return texts;
+  }
+
   /**
-   * Android P is adding new typefaces. This should be updated by that time.
+   * 批量测量文字，在后台线程中进行
+   * @param options
+   * {
+   *     texts?: string[],     //需要测量的文字
+   *     packed?: string,      //或者把全部文字拼接为一个字符串，配合 offsets 使用
+   *     offsets?: number[],   //每段文字在 packed 中的结束位置
+   *     fontSize: number,
+   *     fontFamily?: string,
+   *     fontWeight?: string,
+   *     maxWidth?: number,    //最大宽度，不设置则不换行
+   * }
+   * @param promise 返回一个数组，每段文字依次为 宽度、行数、高度
    */
-  private int getFontWeight(String fontWeight) {
-    if ((fontWeight == null)) return Typeface.NORMAL;
-    switch (fontWeight) {
-      case "bold":
-      case "500":
-      case "600":
-      case "700":
-      case "800":
-      case "900":
-        return Typeface.BOLD;
-      case "normal":
-      case "100":
-      case "200":
-      case "300":
-      case "400":
-      default:
-        return Typeface.NORMAL;
+  @ReactMethod
+  public void measureTextBatch(ReadableMap options, final Promise promise) {
+    String[] texts = readTexts(options);
+    if (texts == null) {
+      promise.reject("BAD_ARGS", "texts or packed/offsets is required");
+      return;
     }
-  }
-  private TextPaint createTextPaint(float fontSize, String fontFamily, String fontWeight) {
-    TextPaint paint = new TextPaint(TextPaint.ANTI_ALIAS_FLAG);
-    paint.setTextSize(fontSize * this.reactContext.getResources().getConfiguration().fontScale);
-    AssetManager assetManager = getReactApplicationContext().getAssets();
-    Typeface typeface = ReactFontManager.getInstance().getTypeface(fontFamily, getFontWeight(fontWeight), assetManager);
-    paint.setTypeface(typeface);
-    return paint;
+    float fontSize = (float)options.getDouble("fontSize");
+    String fontFamily = options.hasKey("fontFamily") ? options.getString("fontFamily") : null;
+    String fontWeight = options.hasKey("fontWeight") ? options.getString("fontWeight") : null;
+    float maxWidth = options.hasKey("maxWidth") ? (float)options.getDouble("maxWidth") : 0;
+
+    TextMeasurer.getInstance(reactContext).measureBatch(texts, fontSize, fontFamily, fontWeight, maxWidth, new TextMeasurer.BatchCallback() {
+      @Override
+      public void onResult(float[] result) {
+        WritableArray array = Arguments.createArray();
+        for (float value : result)
+          array.pushDouble(value);
+        promise.resolve(array);
+      }
+      @Override
+      public void onError(Exception e) {
+        promise.reject("MEASURE_FAILED", e);
+      }
+    });
   }
 
+  /**
+   * 计算能够在指定宽度和行数内放下文字的最大字号，最小字号仍然放不下时同时返回截断位置
+   * @param options
+   * {
+   *     text: string,
+   *     fontFamily?: string,
+   *     fontWeight?: string,
+   *     fontSize: number,     //最大字号
+   *     minFontSize?: number, //最小字号，默认为 fontSize 的一半
+   *     step?: number,        //字号步长，默认 0.5
+   *     maxWidth: number,
+   *     maxLines?: number,    //默认 1
+   *     ellipsis?: string,    //截断时的省略号，默认 "…"
+   * }
+   * @param promise 返回 { fontSize: number, truncateAt: number, truncated: boolean }
+   */
   @ReactMethod
-  public void measureText(ReadableMap options, Callback callback) {
+  public void fitText(final ReadableMap options, final Promise promise) {
+    TextMeasurer.getInstance(reactContext).execute(() -> {
+      try {
+        promise.resolve(fitTextInternal(options));
+      } catch (Exception e) {
+        promise.reject("MEASURE_FAILED", e);
+      }
+    });
+  }
+  /**
+   * 同步版本的 fitText，参数错误时返回 null
+   */
+  @ReactMethod(isBlockingSynchronousMethod = true)
+  public WritableMap fitTextSync(ReadableMap options) {
+    try {
+      return fitTextInternal(options);
+    } catch (Exception e) {
+      e.printStackTrace();
+      return null;
+    }
+  }
+  private WritableMap fitTextInternal(ReadableMap options) {
     String text = options.getString("text");
     float fontSize = (float)options.getDouble("fontSize");
-    String fontFamily = options.getString("fontFamily");
-    String fontWeight = options.getString("fontWeight");
+    float minFontSize = options.hasKey("minFontSize") ? (float)options.getDouble("minFontSize") : fontSize / 2;
+    float step = options.hasKey("step") ? (float)options.getDouble("step") : 0.5f;
+    float maxWidth = (float)options.getDouble("maxWidth");
+    int maxLines = options.hasKey("maxLines") ? options.getInt("maxLines") : 1;
+    String ellipsis = options.hasKey("ellipsis") ? options.getString("ellipsis") : "\u2026";
+    String fontFamily = options.hasKey("fontFamily") ? options.getString("fontFamily") : null;
+    String fontWeight = options.hasKey("fontWeight") ? options.getString("fontWeight") : null;
+
+    TextMeasurer.FitResult result = TextMeasurer.getInstance(reactContext).fitText(text, fontFamily, fontWeight,
+      Math.min(minFontSize, fontSize), fontSize, step, maxWidth, maxLines, ellipsis);
+    WritableMap map = Arguments.createMap();
+    map.putDouble("fontSize", result.fontSize);
+    map.putInt("truncateAt", result.truncateAt);
+    map.putBoolean("truncated", result.truncateAt < text.length());
+    return map;
+  }
+
+  /**
+   * 同步批量测量文字，参数与 measureTextBatch 相同，另外可以设置：
+   * {
+   *     timeBudget?: number,  //时间预算（毫秒），默认 8，超时后剩余的文字不再测量
+   * }
+   * 在 JS 线程中执行，JS 可以在同一次渲染中拿到结果。
+   * @return
+   * {
+   *     measured: number,     //已测量的文字数量，小于文字总数表示超时
+   *     result: number[],     //已测量文字的结果，每段文字依次为 宽度、行数、高度
+   * }
+   * 参数错误时返回 null
+   */
+  @ReactMethod(isBlockingSynchronousMethod = true)
+  public WritableMap measureTextBatchSync(ReadableMap options) {
+    String[] texts = readTexts(options);
+    if (texts == null || !options.hasKey("fontSize"))
+      return null;
+    float fontSize = (float)options.getDouble("fontSize");
+    String fontFamily = options.hasKey("fontFamily") ? options.getString("fontFamily") : null;
+    String fontWeight = options.hasKey("fontWeight") ? options.getString("fontWeight") : null;
+    float maxWidth = options.hasKey("maxWidth") ? (float)options.getDouble("maxWidth") : 0;
+    double timeBudget = options.hasKey("timeBudget") ? options.getDouble("timeBudget") : DEFAULT_SYNC_TIME_BUDGET;
+
+    float[] result = new float[texts.length * TextMeasurer.LAYOUT_STRIDE];
+    int measured = TextMeasurer.getInstance(reactContext).measureWithinBudget(texts, fontSize, fontFamily, fontWeight,
+      maxWidth, (long)(timeBudget * 1000000), result);
 
-    TextPaint paint = createTextPaint(fontSize, fontFamily, fontWeight);
-    callback.invoke(paint.measureText(text));
+    WritableArray array = Arguments.createArray();
+    for (int i = 0; i < measured * TextMeasurer.LAYOUT_STRIDE; i++)
+      array.pushDouble(result[i]);
+    WritableMap map = Arguments.createMap();
+    map.putInt("measured", measured);
+    map.putArray("result", array);
+    return map;
   }
 
 }
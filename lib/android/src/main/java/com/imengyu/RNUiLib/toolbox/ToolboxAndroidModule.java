@@ -22,8 +22,9 @@ import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.views.text.ReactFontManager;
 import com.hjq.permissions.OnPermissionPageCallback;
 import com.hjq.permissions.XXPermissions;
-import com.imengyu.RNUiLib.utils.CacheUtils;
-import com.imengyu.RNUiLib.utils.ClearCacheAsyncTask;
+import com.imengyu.RNUiLib.utils.CacheBudgetManager;
+import com.imengyu.RNUiLib.utils.CacheCleaner;
+import com.imengyu.RNUiLib.utils.CacheSizeTracker;
 import com.imengyu.RNUiLib.utils.FileUtils;
 import com.facebook.react.bridge.Callback;
 import com.facebook.react.bridge.ReactApplicationContext;
@@ -40,6 +41,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ToolboxAndroidModule extends ReactContextBaseJavaModule {
   private static ReactApplicationContext reactContext;
@@ -73,6 +75,8 @@ public class ToolboxAndroidModule extends ReactContextBaseJavaModule {
     super(context);
     singleton = this;
     reactContext = context;
+    //初始化缓存容量管理，设置过上限时会在后台自动检查
+    CacheBudgetManager.getInstance(context);
   }
 
   /**
@@ -136,37 +140,212 @@ public class ToolboxAndroidModule extends ReactContextBaseJavaModule {
     }
   }
 
-  //清除缓存
+  private final Map<String, CacheCleaner> clearCacheTasks = new ConcurrentHashMap<>();
+
+  //清除缓存（filesDir、cacheDir、外部缓存目录和 WebView 数据库，与原来的 CacheUtils.clearCache 行为相同）
   @ReactMethod
-  public void clearAppCache(Callback callback) {
-    ClearCacheAsyncTask asyncTask = new ClearCacheAsyncTask(getReactApplicationContext(), callback);
-    asyncTask.execute(10);
+  public void clearAppCache(final Callback callback) {
+    CacheCleaner.Policy policy = new CacheCleaner.Policy();
+    policy.includeFilesDir = true;
+    new CacheCleaner(getReactApplicationContext(), policy, new CacheCleaner.Listener() {
+      @Override
+      public void onProgress(long deletedFiles, long freedBytes) {
+      }
+      @Override
+      public void onComplete(long deletedFiles, long freedBytes, boolean cancelled) {
+        callback.invoke();
+      }
+    }).start();
   }
+  /**
+   * 按指定范围清除缓存，清除过程中发送 onClearCacheProgress 事件
+   * @param options
+   * {
+   *     taskId?: string,            //用于取消和区分进度事件
+   *     includeFilesDir?: boolean,  //是否同时清除 filesDir，默认 false
+   *     include?: string[],         //只清除这些路径（绝对路径或相对于缓存根目录）
+   *     exclude?: string[],         //不清除这些路径（绝对路径或相对于缓存根目录）
+   * }
+   * @param promise 返回 { deletedFiles, freedBytes, cancelled }
+   */
   @ReactMethod
-  public void getCacheInfo(ReadableMap options, final Callback infoCallback, final Callback errorCallback) {
-    try {
-      // 计算缓存大小
-      long fileSize = 0;
-      File filesDir = getReactApplicationContext().getFilesDir();// /data/data/package_name/files
-      File cacheDir = getReactApplicationContext().getCacheDir();// /data/data/package_name/cache
-      fileSize += FileUtils.getDirSize(filesDir);
-      fileSize += FileUtils.getDirSize(cacheDir);
-      File externalCacheDir = CacheUtils.getExternalCacheDir(getReactApplicationContext());//"<sdcard>/Android/data/<package_name>/cache/"
-      fileSize += FileUtils.getDirSize(externalCacheDir);
+  public void clearAppCacheWithOptions(ReadableMap options, final Promise promise) {
+    final String taskId = options.hasKey("taskId") ? options.getString("taskId") : null;
+    CacheCleaner.Policy policy = new CacheCleaner.Policy();
+    if (options.hasKey("includeFilesDir"))
+      policy.includeFilesDir = options.getBoolean("includeFilesDir");
+    if (options.hasKey("include")) {
+      ReadableArray include = options.getArray("include");
+      for (int i = 0; include != null && i < include.size(); i++)
+        policy.include.add(include.getString(i));
+    }
+    if (options.hasKey("exclude")) {
+      ReadableArray exclude = options.getArray("exclude");
+      for (int i = 0; exclude != null && i < exclude.size(); i++)
+        policy.exclude.add(exclude.getString(i));
+    }
 
-      String strFileSize = FileUtils.formatFileSize(fileSize);
-      String unit = FileUtils.formatFileSizeName(fileSize);
+    CacheCleaner cleaner = new CacheCleaner(getReactApplicationContext(), policy, new CacheCleaner.Listener() {
+      @Override
+      public void onProgress(long deletedFiles, long freedBytes) {
+        WritableMap param = Arguments.createMap();
+        param.putString("taskId", taskId);
+        param.putDouble("deletedFiles", deletedFiles);
+        param.putDouble("freedBytes", freedBytes);
+        sendEvent("onClearCacheProgress", param);
+      }
+      @Override
+      public void onComplete(long deletedFiles, long freedBytes, boolean cancelled) {
+        if (taskId != null)
+          clearCacheTasks.remove(taskId);
+        WritableMap result = Arguments.createMap();
+        result.putDouble("deletedFiles", deletedFiles);
+        result.putDouble("freedBytes", freedBytes);
+        result.putBoolean("cancelled", cancelled);
+        promise.resolve(result);
+      }
+    });
+    if (taskId != null)
+      clearCacheTasks.put(taskId, cleaner);
+    cleaner.start();
+  }
+  /**
+   * 按目录统计缓存大小，每统计完一个目录发送一次 onCacheBreakdownItem 事件
+   * @param options
+   * {
+   *     taskId?: string,        //用于区分事件
+   *     forceRefresh?: boolean, //是否忽略缓存的结果重新统计全部目录
+   * }
+   * @param promise 返回全部目录的统计结果数组
+   */
+  @ReactMethod
+  public void getCacheBreakdown(ReadableMap options, final Promise promise) {
+    final String taskId = options.hasKey("taskId") ? options.getString("taskId") : null;
+    boolean forceRefresh = options.hasKey("forceRefresh") && options.getBoolean("forceRefresh");
+    CacheSizeTracker.getInstance(getReactApplicationContext()).getBreakdown(forceRefresh, new CacheSizeTracker.BreakdownListener() {
+      @Override
+      public void onItem(CacheSizeTracker.Item item, boolean cached) {
+        WritableMap param = cacheBreakdownItemToMap(item);
+        param.putString("taskId", taskId);
+        param.putBoolean("cached", cached);
+        sendEvent("onCacheBreakdownItem", param);
+      }
+      @Override
+      public void onComplete(List<CacheSizeTracker.Item> items) {
+        WritableArray array = Arguments.createArray();
+        for (CacheSizeTracker.Item item : items)
+          array.pushMap(cacheBreakdownItemToMap(item));
+        promise.resolve(array);
+      }
+      @Override
+      public void onError(Exception e) {
+        promise.reject("CACHE_BREAKDOWN_FAILED", e);
+      }
+    });
+  }
+  private static WritableMap cacheBreakdownItemToMap(CacheSizeTracker.Item item) {
+    WritableMap map = Arguments.createMap();
+    map.putString("root", item.root);
+    map.putString("name", item.name);
+    map.putString("path", item.path);
+    map.putDouble("size", item.size);
+    return map;
+  }
+  /**
+   * 设置缓存容量上限，超出时在后台按最近使用时间从旧到新删除缓存文件。
+   * 设置会被保存，之后启动App时也会生效。
+   * @param bytes 上限（字节），0表示不限制
+   */
+  @ReactMethod
+  public void setCacheBudget(double bytes, Promise promise) {
+    CacheBudgetManager.getInstance(getReactApplicationContext()).setBudget((long) bytes);
+    promise.resolve(null);
+  }
+  /**
+   * 获取缓存容量上限（字节），0表示不限制
+   */
+  @ReactMethod
+  public void getCacheBudget(Promise promise) {
+    promise.resolve((double) CacheBudgetManager.getInstance(getReactApplicationContext()).getBudget());
+  }
+  /**
+   * 按最近使用时间把缓存清理到指定大小以内
+   * @param targetBytes 目标大小（字节）
+   * @param promise 返回 { deletedFiles, freedBytes, remainingBytes }
+   */
+  @ReactMethod
+  public void trimCache(double targetBytes, final Promise promise) {
+    CacheBudgetManager.getInstance(getReactApplicationContext()).trim((long) targetBytes, new CacheBudgetManager.Callback() {
+      @Override
+      public void onTrimmed(long deletedFiles, long freedBytes, long remainingBytes) {
+        WritableMap result = Arguments.createMap();
+        result.putDouble("deletedFiles", deletedFiles);
+        result.putDouble("freedBytes", freedBytes);
+        result.putDouble("remainingBytes", remainingBytes);
+        promise.resolve(result);
+      }
+      @Override
+      public void onError(Exception e) {
+        promise.reject("TRIM_CACHE_FAILED", e);
+      }
+    });
+  }
+  /**
+   * 取消正在进行的清除缓存任务
+   * @param taskId clearAppCacheWithOptions 传入的 taskId
+   */
+  @ReactMethod
+  public void cancelClearAppCache(String taskId) {
+    CacheCleaner cleaner = clearCacheTasks.get(taskId);
+    if (cleaner != null)
+      cleaner.cancel();
+  }
+  @ReactMethod
+  public void getCacheInfo(ReadableMap options, final Callback infoCallback, final Callback errorCallback) {
+    // 计算缓存大小，在后台统计，只重新统计有变化的目录
+    final File filesDir = getReactApplicationContext().getFilesDir();// /data/data/package_name/files
+    final File cacheDir = getReactApplicationContext().getCacheDir();// /data/data/package_name/cache
+    boolean forceRefresh = options != null && options.hasKey("forceRefresh") && options.getBoolean("forceRefresh");
+    CacheSizeTracker.getInstance(getReactApplicationContext()).getSize(forceRefresh, new CacheSizeTracker.Callback() {
+      @Override
+      public void onSize(long fileSize) {
+        String strFileSize = FileUtils.formatFileSize(fileSize);
+        String unit = FileUtils.formatFileSizeName(fileSize);
 
-      WritableMap info = new WritableNativeMap();
-      info.putString("filesDir", filesDir.getAbsolutePath());
-      info.putString("cacheDir", cacheDir.getAbsolutePath());
-      info.putString("cacheSizeString", strFileSize);
-      info.putString("cacheUnit", unit);
-      info.putInt("cacheSize", (int)fileSize);
-      infoCallback.invoke(info);
-    } catch (Exception e) {
-      errorCallback.invoke(e.toString());
-    }
+        WritableMap info = new WritableNativeMap();
+        info.putString("filesDir", filesDir.getAbsolutePath());
+        info.putString("cacheDir", cacheDir.getAbsolutePath());
+        info.putString("cacheSizeString", strFileSize);
+        info.putString("cacheUnit", unit);
+        info.putDouble("cacheSize", fileSize);
+        infoCallback.invoke(info);
+      }
+      @Override
+      public void onError(Exception e) {
+        errorCallback.invoke(e.toString());
+      }
+    });
+  }
+  /**
+   * 获取缓存总大小（字节），结果会被缓存，只重新统计有变化的目录
+   * @param options
+   * {
+   *     forceRefresh?: boolean,
+   * }
+   */
+  @ReactMethod
+  public void getCacheSize(ReadableMap options, final Promise promise) {
+    boolean forceRefresh = options != null && options.hasKey("forceRefresh") && options.getBoolean("forceRefresh");
+    CacheSizeTracker.getInstance(getReactApplicationContext()).getSize(forceRefresh, new CacheSizeTracker.Callback() {
+      @Override
+      public void onSize(long size) {
+        promise.resolve((double) size);
+      }
+      @Override
+      public void onError(Exception e) {
+        promise.reject("CACHE_SIZE_FAILED", e);
+      }
+    });
   }
   @ReactMethod
   public void getPackageInfo(ReadableMap options, final Callback infoCallback, final Callback errorCallback) {
@@ -0,0 +1,200 @@
+package com.imengyu.RNUiLib.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.system.ErrnoException;
+import android.system.Os;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按容量上限管理缓存目录（LRU）
+ *
+ * 统计 cacheDir 和外部缓存目录中所有文件的大小和最近使用时间（取访问时间与修改时间中较新的一个），
+ * 超出容量上限时从最久没有使用的文件开始删除。所有操作都在内部的单线程中执行，
+ * 设置了上限后会在启动时和之后每隔一段时间自动检查一次。
+ * 检查时先使用 CacheSizeTracker 的增量统计结果，没有超出上限时不遍历、不 stat 每个文件。
+ */
+public class CacheBudgetManager {
+
+    /**
+     * 清理结果回调，在后台线程中调用
+     */
+    public interface Callback {
+        void onTrimmed(long deletedFiles, long freedBytes, long remainingBytes);
+        void onError(Exception e);
+    }
+
+    private static final String PREFS_NAME = "RNUiLibCacheBudget";
+    private static final String KEY_BUDGET = "budget";
+    private static final long CHECK_INTERVAL_MINUTES = 10;
+    //最近一段时间内修改的文件可能正在写入，不删除
+    private static final long IN_USE_GRACE_MS = 10 * 1000;
+
+    private static CacheBudgetManager instance = null;
+
+    public static synchronized CacheBudgetManager getInstance(Context context) {
+        if (instance == null)
+            instance = new CacheBudgetManager(context.getApplicationContext());
+        return instance;
+    }
+
+    private static class CacheFile {
+        final File file;
+        final long size;
+        final long lastUsed;
+
+        CacheFile(File file, long size, long lastUsed) {
+            this.file = file;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    private final Context context;
+    private final SharedPreferences preferences;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    //在 JS 调用的线程中写入，在内部线程中读取
+    private volatile long budget;
+
+    private CacheBudgetManager(Context context) {
+        this.context = context;
+        preferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        budget = preferences.getLong(KEY_BUDGET, 0);
+        executor.scheduleWithFixedDelay(this::enforceBudget, 0, CHECK_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * 设置缓存容量上限，设置后立即检查一次
+     * @param bytes 上限（字节），小于等于0表示不限制
+     */
+    public void setBudget(long bytes) {
+        budget = Math.max(0, bytes);
+        preferences.edit().putLong(KEY_BUDGET, budget).apply();
+        executor.execute(this::enforceBudget);
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * 把缓存清理到指定大小以内
+     * @param targetBytes 清理后的目标大小（字节）
+     * @param callback    结果回调
+     */
+    public void trim(final long targetBytes, final Callback callback) {
+        executor.execute(() -> {
+            try {
+                trimTo(Math.max(0, targetBytes), callback);
+            } catch (Exception e) {
+                callback.onError(e);
+            }
+        });
+    }
+
+    private void enforceBudget() {
+        long limit = budget;
+        if (limit <= 0)
+            return;
+        try {
+            trimTo(limit, null);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void trimTo(long targetBytes, Callback callback) throws Exception {
+        //增量统计的大小没有超出目标时不需要收集全部文件
+        long trackedSize = getTrackedSize();
+        if (trackedSize <= targetBytes) {
+            if (callback != null)
+                callback.onTrimmed(0, 0, trackedSize);
+            return;
+        }
+
+        List<CacheFile> files = new ArrayList<>();
+        long total = 0;
+        total += collect(context.getCacheDir(), files);
+        total += collect(CacheUtils.getExternalCacheDir(context), files);
+
+        long deletedFiles = 0;
+        long freedBytes = 0;
+        if (total > targetBytes) {
+            Collections.sort(files, (a, b) -> Long.compare(a.lastUsed, b.lastUsed));
+            long now = System.currentTimeMillis();
+            for (CacheFile item : files) {
+                if (total - freedBytes <= targetBytes)
+                    break;
+                if (now - item.lastUsed < IN_USE_GRACE_MS)
+                    continue;
+                if (item.file.delete()) {
+                    deletedFiles++;
+                    freedBytes += item.size;
+                }
+            }
+            if (deletedFiles > 0)
+                CacheSizeTracker.getInstance(context).invalidate();
+        }
+        if (callback != null)
+            callback.onTrimmed(deletedFiles, freedBytes, total - freedBytes);
+    }
+
+    /**
+     * 从 CacheSizeTracker 获取 cacheDir 和外部缓存目录的大小，只会重新统计有变化或超过有效时间的目录
+     */
+    private long getTrackedSize() throws Exception {
+        String cacheDir = context.getCacheDir().getAbsolutePath();
+        File externalCacheDir = CacheUtils.getExternalCacheDir(context);
+        String externalCachePath = externalCacheDir != null ? externalCacheDir.getAbsolutePath() : null;
+        long total = 0;
+        for (CacheSizeTracker.Item item : CacheSizeTracker.getInstance(context).getBreakdownSync(false)) {
+            if (item.root.equals(cacheDir) || item.root.equals(externalCachePath))
+                total += item.size;
+        }
+        return total;
+    }
+
+    /**
+     * 递归收集目录下的文件
+     * @return 文件总大小
+     */
+    private static long collect(File dir, List<CacheFile> out) {
+        if (dir == null)
+            return 0;
+        File[] children = dir.listFiles();
+        if (children == null)
+            return 0;
+        long total = 0;
+        for (File child : children) {
+            if (child.isDirectory()) {
+                total += collect(child, out);
+            } else {
+                long size = child.length();
+                out.add(new CacheFile(child, size, getLastUsedTime(child)));
+                total += size;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 最近使用时间：访问时间和修改时间中较新的一个。
+     * 大多数设备以 relatime 挂载，访问时间不是每次都更新，但足够区分长时间未使用的文件。
+     */
+    private static long getLastUsedTime(File file) {
+        long modified = file.lastModified();
+        try {
+            long accessed = Os.stat(file.getAbsolutePath()).st_atime * 1000L;
+            return Math.max(modified, accessed);
+        } catch (ErrnoException e) {
+            return modified;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.imengyu.RNUiLib.utils;
+
+import android.content.Context;
+import android.os.SystemClock;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 并行、可取消的缓存清除
+ *
+ * 每个缓存根目录下的一级子目录作为一个子任务，在有限大小的线程池中并行删除；
+ * 删除过程中按固定间隔回调进度（已删除文件数、释放的字节数），可以随时取消。
+ * 通过 include/exclude 路径控制删除范围，默认只清除 cacheDir 和外部缓存目录，filesDir 需要显式指定。
+ */
+public class CacheCleaner {
+
+    /**
+     * 清除进度回调，在后台线程中调用
+     */
+    public interface Listener {
+        void onProgress(long deletedFiles, long freedBytes);
+        void onComplete(long deletedFiles, long freedBytes, boolean cancelled);
+    }
+
+    /**
+     * 清除范围
+     */
+    public static class Policy {
+        /**
+         * 是否同时清除 filesDir
+         */
+        public boolean includeFilesDir = false;
+        /**
+         * 只清除这些路径下的文件（绝对路径，或相对于缓存根目录的路径），为空表示清除全部
+         */
+        public final List<String> include = new ArrayList<>();
+        /**
+         * 不清除这些路径下的文件（绝对路径，或相对于缓存根目录的路径）
+         */
+        public final List<String> exclude = new ArrayList<>();
+    }
+
+    private static final long PROGRESS_INTERVAL = 100;
+    private static final ExecutorService workers = Executors.newFixedThreadPool(
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
+
+    private final Context context;
+    private final Policy policy;
+    private final Listener listener;
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+    private final AtomicLong deletedFiles = new AtomicLong(0);
+    private final AtomicLong freedBytes = new AtomicLong(0);
+    private final AtomicLong lastProgressTime = new AtomicLong(0);
+    private final AtomicInteger pendingTasks = new AtomicInteger(0);
+    private final long startTime = System.currentTimeMillis();
+
+    private List<String> includePaths;
+    private List<String> excludePaths;
+
+    public CacheCleaner(Context context, Policy policy, Listener listener) {
+        this.context = context.getApplicationContext();
+        this.policy = policy;
+        this.listener = listener;
+    }
+
+    /**
+     * 开始清除
+     */
+    public void start() {
+        List<File> roots = new ArrayList<>();
+        if (policy.includeFilesDir)
+            roots.add(context.getFilesDir());
+        roots.add(context.getCacheDir());
+        File externalCacheDir = CacheUtils.getExternalCacheDir(context);
+        if (externalCacheDir != null)
+            roots.add(externalCacheDir);
+
+        includePaths = resolvePaths(policy.include, roots);
+        excludePaths = resolvePaths(policy.exclude, roots);
+
+        //先把所有子任务计数，避免第一个子任务完成时误判为全部完成
+        List<File[]> tasks = new ArrayList<>();
+        for (File root : roots) {
+            File[] children = root.listFiles();
+            if (children == null)
+                continue;
+            List<File> looseFiles = new ArrayList<>();
+            for (File child : children) {
+                if (child.isDirectory())
+                    tasks.add(new File[] { child });
+                else
+                    looseFiles.add(child);
+            }
+            if (!looseFiles.isEmpty())
+                tasks.add(looseFiles.toArray(new File[0]));
+        }
+
+        pendingTasks.set(tasks.size() + 1);
+        //删除失败（例如 SecurityException）时也要结束子任务，否则永远不会回调完成
+        workers.execute(() -> {
+            try {
+                if (policy.include.isEmpty())
+                    CacheUtils.clearWebViewDatabases(context);
+            } finally {
+                finishTask();
+            }
+        });
+        for (final File[] files : tasks) {
+            workers.execute(() -> {
+                try {
+                    for (File file : files) {
+                        if (cancelled.get())
+                            break;
+                        delete(file);
+                    }
+                } finally {
+                    finishTask();
+                }
+            });
+        }
+    }
+
+    /**
+     * 取消清除，已经删除的文件不会恢复
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    private void finishTask() {
+        if (pendingTasks.decrementAndGet() == 0) {
+            CacheSizeTracker.getInstance(context).invalidate();
+            listener.onComplete(deletedFiles.get(), freedBytes.get(), cancelled.get());
+        }
+    }
+
+    private void delete(File file) {
+        if (cancelled.get())
+            return;
+        String path = file.getAbsolutePath();
+        if (isUnder(path, excludePaths))
+            return;
+        if (file.isDirectory()) {
+            //不在 include 范围内、也不包含 include 路径的目录不需要遍历
+            if (!isDeletable(path) && !isAncestorOfAny(path, includePaths))
+                return;
+            File[] children = file.listFiles();
+            if (children != null) {
+                for (File child : children)
+                    delete(child);
+            }
+            //目录中还有被排除或新写入的文件时删除会失败，这是预期的
+            if (isDeletable(path) && !cancelled.get())
+                file.delete();
+        } else if (isDeletable(path) && file.lastModified() < startTime) {
+            long length = file.length();
+            if (file.delete()) {
+                deletedFiles.incrementAndGet();
+                freedBytes.addAndGet(length);
+                reportProgress();
+            }
+        }
+    }
+
+    private boolean isDeletable(String path) {
+        return includePaths.isEmpty() || isUnder(path, includePaths);
+    }
+
+    private void reportProgress() {
+        long now = SystemClock.uptimeMillis();
+        long last = lastProgressTime.get();
+        if (now - last >= PROGRESS_INTERVAL && lastProgressTime.compareAndSet(last, now))
+            listener.onProgress(deletedFiles.get(), freedBytes.get());
+    }
+
+    private static boolean isAncestorOfAny(String path, List<String> paths) {
+        for (String item : paths) {
+            if (item.startsWith(path + File.separator))
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean isUnder(String path, List<String> prefixes) {
+        for (String prefix : prefixes) {
+            if (path.equals(prefix) || path.startsWith(prefix + File.separator))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * 把相对路径展开为每个缓存根目录下的绝对路径
+     */
+    private static List<String> resolvePaths(List<String> paths, List<File> roots) {
+        List<String> result = new ArrayList<>();
+        for (String path : paths) {
+            if (path == null || path.isEmpty())
+                continue;
+            if (path.startsWith(File.separator)) {
+                result.add(new File(path).getAbsolutePath());
+            } else {
+                for (File root : roots)
+                    result.add(new File(root, path).getAbsolutePath());
+            }
+        }
+        return result;
+    }
+}
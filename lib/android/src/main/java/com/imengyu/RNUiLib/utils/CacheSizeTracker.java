@@ -0,0 +1,435 @@
+package com.imengyu.RNUiLib.utils;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.FileObserver;
+import android.os.SystemClock;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * App 缓存大小的增量统计
+ *
+ * 第一次查询时把每个缓存根目录下的一级子目录分给多个线程并行统计，之后结果会被缓存。
+ * 根目录和每个一级子目录都挂了 FileObserver，目录中有文件写入、删除、移动时只把对应的子目录标记为需要重新统计，
+ * 下次查询只重新统计这些子目录，其他的直接使用缓存的结果。
+ * FileObserver 不会递归监听，更深层目录中的修改（例如 WebView、Glide 的缓存子目录）监听不到，
+ * 因此每个目录的统计结果最多只使用 RESULT_TTL_MS，超时后重新统计，也可以用 forceRefresh 立即重新统计。
+ * 没有为每一层目录都挂 FileObserver，因为缓存目录可能有上万个子目录，会耗尽系统的 inotify 监听数量。
+ *
+ * 每个目录的结果同时作为按目录统计（getBreakdown）的一项，并保存在一个小的索引文件中，
+ * App 重新启动后在有效时间内、并且目录的修改时间没有变化的结果可以直接使用。
+ *
+ * 所有状态只在内部的单线程 executor 中读写，结果通过回调返回（在后台线程）。
+ */
+public class CacheSizeTracker {
+
+    /**
+     * 统计结果回调
+     */
+    public interface Callback {
+        void onSize(long size);
+        void onError(Exception e);
+    }
+
+    /**
+     * 按目录统计的回调，在后台线程中调用
+     */
+    public interface BreakdownListener {
+        /**
+         * 一项统计完成
+         * @param item   结果
+         * @param cached 是否直接使用了缓存的结果
+         */
+        void onItem(Item item, boolean cached);
+        void onComplete(List<Item> items);
+        void onError(Exception e);
+    }
+
+    /**
+     * 一个目录的统计结果
+     */
+    public static class Item {
+        /**
+         * 所在的根目录
+         */
+        public final String root;
+        /**
+         * 目录名，根目录自身的文件为 "."
+         */
+        public final String name;
+        public final String path;
+        public final long size;
+
+        Item(String root, String name, String path, long size) {
+            this.root = root;
+            this.name = name;
+            this.path = path;
+            this.size = size;
+        }
+    }
+
+    private static final String INDEX_FILE_NAME = "RNUiLibCacheIndex.json";
+    private static final String ROOT_FILES_NAME = ".";
+
+    private static final int OBSERVER_MASK = FileObserver.CREATE | FileObserver.DELETE | FileObserver.CLOSE_WRITE
+            | FileObserver.MOVED_FROM | FileObserver.MOVED_TO | FileObserver.DELETE_SELF;
+
+    /**
+     * 每个目录统计结果的有效时间，超时后即使没有收到修改事件也重新统计
+     */
+    private static final long RESULT_TTL_MS = 30 * 1000;
+
+    private static CacheSizeTracker instance = null;
+
+    /**
+     * 获取实例，统计 filesDir、cacheDir 和外部缓存目录
+     */
+    public static synchronized CacheSizeTracker getInstance(Context context) {
+        if (instance == null) {
+            Context appContext = context.getApplicationContext();
+            List<File> roots = new ArrayList<>();
+            roots.add(appContext.getFilesDir());
+            roots.add(appContext.getCacheDir());
+            File externalCacheDir = CacheUtils.getExternalCacheDir(appContext);
+            if (externalCacheDir != null)
+                roots.add(externalCacheDir);
+            instance = new CacheSizeTracker(roots, new File(appContext.getNoBackupFilesDir(), INDEX_FILE_NAME));
+        }
+        return instance;
+    }
+
+    /**
+     * 一个被单独统计的目录（根目录本身的文件，或根目录下的一个一级子目录）
+     */
+    private class Entry {
+        final File root;
+        final File dir;
+        final boolean isRoot;
+        final FileObserver observer;
+        volatile boolean dirty = true;
+        long size = 0;
+        long measuredAt = 0;
+
+        Entry(File root, File dir) {
+            this.root = root;
+            this.dir = dir;
+            this.isRoot = root == dir;
+            this.observer = createObserver(this);
+        }
+
+        Item toItem() {
+            return new Item(root.getAbsolutePath(), isRoot ? ROOT_FILES_NAME : dir.getName(), dir.getAbsolutePath(), size);
+        }
+
+        void onEvent(int event) {
+            dirty = true;
+            if (isRoot || (event & FileObserver.DELETE_SELF) != 0)
+                structureChanged = true;
+        }
+
+        long measure() {
+            if (isRoot) {
+                //根目录只统计自身的文件和子目录本身的大小，子目录内容由各自的 Entry 统计
+                long total = 0;
+                File[] files = dir.listFiles();
+                if (files != null) {
+                    for (File file : files)
+                        total += file.length();
+                }
+                return total;
+            }
+            return FileUtils.getDirSize(dir);
+        }
+    }
+
+    /**
+     * 索引文件中保存的一项结果
+     */
+    private static class SavedEntry {
+        final long size;
+        final long measuredAt;//System.currentTimeMillis
+        final long lastModified;
+
+        SavedEntry(long size, long measuredAt, long lastModified) {
+            this.size = size;
+            this.measuredAt = measuredAt;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private final List<File> roots;
+    private final File indexFile;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ExecutorService walkers;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private volatile boolean structureChanged = true;
+    private Map<String, SavedEntry> savedEntries = null;
+
+    private CacheSizeTracker(List<File> roots, File indexFile) {
+        this.roots = roots;
+        this.indexFile = indexFile;
+        int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        walkers = Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * 异步获取缓存总大小（字节）
+     * @param forceRefresh 是否丢弃缓存的结果重新统计全部目录
+     * @param callback     结果回调，在后台线程中调用
+     */
+    public void getSize(final boolean forceRefresh, final Callback callback) {
+        executor.execute(() -> {
+            try {
+                callback.onSize(computeSize(forceRefresh));
+            } catch (Exception e) {
+                callback.onError(e);
+            }
+        });
+    }
+
+    /**
+     * 异步按目录统计缓存大小，与 getSize 使用同一份结果：
+     * 没有变化并且没有超过有效时间的目录立即返回，其他目录并行重新统计，每完成一项就回调一次
+     * @param forceRefresh 是否丢弃缓存的结果重新统计全部目录
+     * @param listener     结果回调，在后台线程中调用
+     */
+    public void getBreakdown(final boolean forceRefresh, final BreakdownListener listener) {
+        executor.execute(() -> {
+            try {
+                listener.onComplete(update(forceRefresh, listener));
+            } catch (Exception e) {
+                listener.onError(e);
+            }
+        });
+    }
+
+    /**
+     * 同步按目录统计缓存大小，不能在回调中调用
+     * @param forceRefresh 是否丢弃缓存的结果重新统计全部目录
+     */
+    public List<Item> getBreakdownSync(final boolean forceRefresh) throws Exception {
+        return executor.submit(() -> update(forceRefresh, null)).get();
+    }
+
+    /**
+     * 标记全部目录需要重新统计，例如清除缓存之后
+     */
+    public void invalidate() {
+        executor.execute(this::invalidateAll);
+    }
+
+    private long computeSize(boolean forceRefresh) throws Exception {
+        long total = 0;
+        for (Item item : update(forceRefresh, null))
+            total += item.size;
+        return total;
+    }
+
+    /**
+     * 重新统计有变化或已超过有效时间的目录，返回全部目录的结果
+     */
+    private List<Item> update(boolean forceRefresh, @Nullable BreakdownListener listener) throws Exception {
+        if (savedEntries == null)
+            savedEntries = loadIndex();
+        if (forceRefresh)
+            invalidateAll();
+        if (structureChanged)
+            rebuildEntries();
+
+        List<Item> items = new ArrayList<>(entries.size());
+        List<Entry> dirtyEntries = new ArrayList<>();
+        long now = SystemClock.elapsedRealtime();
+        for (Entry entry : entries.values()) {
+            if (entry.dirty || now - entry.measuredAt > RESULT_TTL_MS) {
+                dirtyEntries.add(entry);
+            } else {
+                Item item = entry.toItem();
+                items.add(item);
+                if (listener != null)
+                    listener.onItem(item, true);
+            }
+        }
+        if (dirtyEntries.isEmpty())
+            return items;
+
+        //先清除标记再统计，统计过程中发生的修改会在下次重新统计
+        ExecutorCompletionService<Entry> completion = new ExecutorCompletionService<>(walkers);
+        for (final Entry entry : dirtyEntries) {
+            entry.dirty = false;
+            entry.measuredAt = now;
+            completion.submit(() -> {
+                try {
+                    entry.size = entry.measure();
+                } catch (RuntimeException e) {
+                    entry.dirty = true;
+                    throw e;
+                }
+                return entry;
+            });
+        }
+        //按完成顺序逐项返回
+        for (int i = 0; i < dirtyEntries.size(); i++) {
+            Item item = completion.take().get().toItem();
+            items.add(item);
+            if (listener != null)
+                listener.onItem(item, false);
+        }
+        saveIndex();
+        return items;
+    }
+
+    private void invalidateAll() {
+        structureChanged = true;
+        for (Entry entry : entries.values())
+            entry.dirty = true;
+    }
+
+    /**
+     * 重新列出根目录下的一级子目录，新目录加入统计，已删除的目录移除
+     */
+    private void rebuildEntries() {
+        structureChanged = false;
+        Map<String, Boolean> alive = new HashMap<>();
+        for (File root : roots) {
+            if (root == null || !root.isDirectory())
+                continue;
+            alive.put(root.getAbsolutePath(), true);
+            Entry rootEntry = entries.get(root.getAbsolutePath());
+            if (rootEntry == null)
+                addEntry(root, root);
+            else
+                rootEntry.dirty = true;
+
+            File[] children = root.listFiles();
+            if (children == null)
+                continue;
+            for (File child : children) {
+                if (!child.isDirectory())
+                    continue;
+                String path = child.getAbsolutePath();
+                alive.put(path, true);
+                if (!entries.containsKey(path))
+                    addEntry(root, child);
+            }
+        }
+
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Entry> item = iterator.next();
+            if (!alive.containsKey(item.getKey())) {
+                item.getValue().observer.stopWatching();
+                iterator.remove();
+            }
+        }
+    }
+
+    private void addEntry(File root, File dir) {
+        Entry entry = new Entry(root, dir);
+        //索引中的结果在有效时间内、并且目录没有变化时直接使用
+        SavedEntry saved = savedEntries.remove(dir.getAbsolutePath());
+        if (saved != null && saved.lastModified == dir.lastModified()) {
+            long age = System.currentTimeMillis() - saved.measuredAt;
+            if (age >= 0 && age <= RESULT_TTL_MS) {
+                entry.size = saved.size;
+                entry.measuredAt = SystemClock.elapsedRealtime() - age;
+                entry.dirty = false;
+            }
+        }
+        entry.observer.startWatching();
+        entries.put(dir.getAbsolutePath(), entry);
+    }
+
+    /**
+     * 创建监听目录修改的 FileObserver，API 29 以下只有已弃用的 FileObserver(String, int)
+     */
+    @SuppressWarnings("deprecation")
+    private static FileObserver createObserver(final Entry entry) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            return new FileObserver(entry.dir, OBSERVER_MASK) {
+                @Override
+                public void onEvent(int event, @Nullable String path) {
+                    entry.onEvent(event);
+                }
+            };
+        }
+        return new FileObserver(entry.dir.getAbsolutePath(), OBSERVER_MASK) {
+            @Override
+            public void onEvent(int event, @Nullable String path) {
+                entry.onEvent(event);
+            }
+        };
+    }
+
+    private Map<String, SavedEntry> loadIndex() {
+        Map<String, SavedEntry> result = new HashMap<>();
+        if (!indexFile.exists())
+            return result;
+        try (InputStream in = new FileInputStream(indexFile)) {
+            byte[] buffer = new byte[(int) indexFile.length()];
+            int read = 0;
+            while (read < buffer.length) {
+                int count = in.read(buffer, read, buffer.length - read);
+                if (count < 0)
+                    break;
+                read += count;
+            }
+            JSONArray array = new JSONArray(new String(buffer, 0, read, Charset.forName("UTF-8")));
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject object = array.getJSONObject(i);
+                result.put(object.getString("path"), new SavedEntry(object.getLong("size"),
+                        object.getLong("measuredAt"), object.getLong("lastModified")));
+            }
+        } catch (Exception e) {
+            //索引损坏时重新统计
+            e.printStackTrace();
+            result.clear();
+        }
+        return result;
+    }
+
+    private void saveIndex() {
+        try {
+            long nowWall = System.currentTimeMillis();
+            long now = SystemClock.elapsedRealtime();
+            JSONArray array = new JSONArray();
+            for (Entry entry : entries.values()) {
+                if (entry.dirty)
+                    continue;
+                JSONObject object = new JSONObject();
+                object.put("path", entry.dir.getAbsolutePath());
+                object.put("size", entry.size);
+                object.put("measuredAt", nowWall - (now - entry.measuredAt));
+                object.put("lastModified", entry.dir.lastModified());
+                array.put(object);
+            }
+            File tempFile = new File(indexFile.getPath() + ".tmp");
+            try (OutputStream out = new FileOutputStream(tempFile)) {
+                out.write(array.toString().getBytes(Charset.forName("UTF-8")));
+            }
+            if (!tempFile.renameTo(indexFile))
+                throw new IOException("Failed to write " + indexFile);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -12,16 +12,22 @@ public class CacheUtils {
    * 清除app缓存
    */
   public static void clearCache(Context context) {
+    clearWebViewDatabases(context);
+    //清除数据缓存
+    clearCacheFolder(context.getFilesDir(), System.currentTimeMillis());
+    clearCacheFolder(context.getCacheDir(), System.currentTimeMillis());
+    clearCacheFolder(getExternalCacheDir(context), System.currentTimeMillis());
+  }
+  /**
+   * 清除 WebView 的缓存数据库
+   */
+  public static void clearWebViewDatabases(Context context) {
     context.deleteDatabase("webview.db");
     context.deleteDatabase("webview.db-shm");
     context.deleteDatabase("webview.db-wal");
     context.deleteDatabase("webviewCache.db");
     context.deleteDatabase("webviewCache.db-shm");
     context.deleteDatabase("webviewCache.db-wal");
-    //清除数据缓存
-    clearCacheFolder(context.getFilesDir(), System.currentTimeMillis());
-    clearCacheFolder(context.getCacheDir(), System.currentTimeMillis());
-    clearCacheFolder(getExternalCacheDir(context), System.currentTimeMillis());
   }
   /**
    * 清除缓存目录
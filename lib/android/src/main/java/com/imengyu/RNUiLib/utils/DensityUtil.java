@@ -18,4 +18,11 @@ public class DensityUtil {
     final float scale = context.getResources().getDisplayMetrics().density;
     return (int) (pxValue / scale + 0.5f);
   }
+
+  /**
+   * 使用已知的屏幕密度从 px(像素) 的单位 转成为 dp
+   */
+  public static int px2dip(float density, float pxValue) {
+    return (int) (pxValue / density + 0.5f);
+  }
 }
@@ -18,6 +18,9 @@ public class FileUtils {
     }
     long dirSize = 0;
     File[] files = dir.listFiles();
+    if (files == null) {
+      return 0;
+    }
     for (File file : files) {
       if (file.isFile()) {
         dirSize += file.length();
@@ -0,0 +1,370 @@
+package com.imengyu.RNUiLib.utils;
+
+import android.content.ComponentCallbacks;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.os.Build;
+import android.os.SystemClock;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+
+import com.facebook.react.views.text.ReactFontManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 文字测量
+ *
+ * 按 (字号, 字体, 粗细, 系统字体缩放) 缓存 TextPaint，每个 TextPaint 带一个测量宽度的 LRU 缓存，
+ * 相同参数的文字不需要重复创建 TextPaint、查找 Typeface 和测量。
+ * 系统配置（字体缩放等）改变时清空全部缓存。
+ */
+public class TextMeasurer {
+
+    /**
+     * 批量测量结果回调
+     */
+    public interface BatchCallback {
+        void onResult(float[] result);
+        void onError(Exception e);
+    }
+
+    private static final int MAX_WIDTHS_PER_PAINT = 512;
+
+    /**
+     * measureLayout 每项结果占用的数组长度：宽度、行数、高度
+     */
+    public static final int LAYOUT_STRIDE = 3;
+
+    private static TextMeasurer instance = null;
+
+    public static synchronized TextMeasurer getInstance(Context context) {
+        if (instance == null)
+            instance = new TextMeasurer(context.getApplicationContext());
+        return instance;
+    }
+
+    /**
+     * 一组字体参数对应的 TextPaint 和宽度缓存。
+     * TextPaint 不是线程安全的，使用时需要对 Entry 加锁。
+     */
+    public static class Entry {
+        public final TextPaint paint;
+        final LruCache<String, Float> widths = new LruCache<>(MAX_WIDTHS_PER_PAINT);
+
+        Entry(TextPaint paint) {
+            this.paint = paint;
+        }
+
+        /**
+         * 测量单行文字宽度（使用缓存）
+         */
+        public synchronized float measureWidth(String text) {
+            Float width = widths.get(text);
+            if (width == null) {
+                width = paint.measureText(text);
+                widths.put(text, width);
+            }
+            return width;
+        }
+
+        /**
+         * 测量文字的宽度、行数和高度
+         * @param text     文字
+         * @param maxWidth 最大宽度，小于等于0表示不换行
+         * @param out      结果数组，依次写入宽度、行数、高度
+         * @param offset   写入位置
+         */
+        public synchronized void measureLayout(String text, float maxWidth, float[] out, int offset) {
+            if (maxWidth <= 0) {
+                Paint.FontMetricsInt fm = paint.getFontMetricsInt();
+                out[offset] = measureWidth(text);
+                out[offset + 1] = 1;
+                out[offset + 2] = fm.descent - fm.ascent;
+                return;
+            }
+            int width = (int) Math.ceil(maxWidth);
+            StaticLayout layout;
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+                layout = StaticLayout.Builder.obtain(text, 0, text.length(), paint, width)
+                        .setIncludePad(false)
+                        .build();
+            } else {
+                layout = new StaticLayout(text, paint, width, Layout.Alignment.ALIGN_NORMAL, 1, 0, false);
+            }
+            float maxLineWidth = 0;
+            int lineCount = layout.getLineCount();
+            for (int i = 0; i < lineCount; i++)
+                maxLineWidth = Math.max(maxLineWidth, layout.getLineWidth(i));
+            out[offset] = maxLineWidth;
+            out[offset + 1] = lineCount;
+            out[offset + 2] = layout.getHeight();
+        }
+    }
+
+    private final Context context;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LruCache<String, FitResult> fitResults = new LruCache<>(256);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private volatile float fontScale;
+
+    private TextMeasurer(Context context) {
+        this.context = context;
+        this.fontScale = context.getResources().getConfiguration().fontScale;
+        context.registerComponentCallbacks(new ComponentCallbacks() {
+            @Override
+            public void onConfigurationChanged(@NonNull Configuration newConfig) {
+                fontScale = newConfig.fontScale;
+                entries.clear();
+                fitResults.evictAll();
+            }
+            @Override
+            public void onLowMemory() {
+                entries.clear();
+                fitResults.evictAll();
+            }
+        });
+    }
+
+    /**
+     * 获取字体参数对应的 TextPaint 和宽度缓存
+     * @param fontSize   字号（dp），会乘以系统字体缩放
+     * @param fontFamily 字体，可以为空
+     * @param fontWeight 文字粗细，可以为空
+     */
+    public Entry getEntry(float fontSize, String fontFamily, String fontWeight) {
+        float scale = fontScale;
+        String key = fontSize + "|" + fontFamily + "|" + fontWeight + "|" + scale;
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            TextPaint paint = new TextPaint(TextPaint.ANTI_ALIAS_FLAG);
+            paint.setTextSize(fontSize * scale);
+            paint.setTypeface(ReactFontManager.getInstance().getTypeface(fontFamily, getFontWeight(fontWeight), context.getAssets()));
+            entry = new Entry(paint);
+            Entry old = entries.putIfAbsent(key, entry);
+            if (old != null)
+                entry = old;
+        }
+        return entry;
+    }
+
+    /**
+     * 测量单行文字宽度
+     */
+    public float measureWidth(String text, float fontSize, String fontFamily, String fontWeight) {
+        return getEntry(fontSize, fontFamily, fontWeight).measureWidth(text);
+    }
+
+    /**
+     * 在后台线程中批量测量文字
+     * @param texts      文字
+     * @param fontSize   字号
+     * @param fontFamily 字体，可以为空
+     * @param fontWeight 文字粗细，可以为空
+     * @param maxWidth   最大宽度，小于等于0表示不换行
+     * @param callback   结果回调（后台线程），每项依次为宽度、行数、高度，长度为 texts.length * LAYOUT_STRIDE
+     */
+    public void measureBatch(final String[] texts, final float fontSize, final String fontFamily, final String fontWeight,
+                             final float maxWidth, final BatchCallback callback) {
+        executor.execute(() -> {
+            try {
+                Entry entry = getEntry(fontSize, fontFamily, fontWeight);
+                float[] result = new float[texts.length * LAYOUT_STRIDE];
+                for (int i = 0; i < texts.length; i++)
+                    entry.measureLayout(texts[i] == null ? "" : texts[i], maxWidth, result, i * LAYOUT_STRIDE);
+                callback.onResult(result);
+            } catch (Exception e) {
+                callback.onError(e);
+            }
+        });
+    }
+
+    /**
+     * 在测量使用的后台线程中执行任务
+     */
+    public void execute(Runnable runnable) {
+        executor.execute(runnable);
+    }
+
+    /**
+     * 在当前线程中批量测量文字，超过时间预算时停止，剩余的项不测量
+     * @param texts        文字
+     * @param fontSize     字号
+     * @param fontFamily   字体，可以为空
+     * @param fontWeight   文字粗细，可以为空
+     * @param maxWidth     最大宽度，小于等于0表示不换行
+     * @param budgetNanos  时间预算（纳秒）
+     * @param out          结果数组，长度至少为 texts.length * LAYOUT_STRIDE
+     * @return 已测量的项数
+     */
+    public int measureWithinBudget(String[] texts, float fontSize, String fontFamily, String fontWeight,
+                                   float maxWidth, long budgetNanos, float[] out) {
+        long deadline = SystemClock.elapsedRealtimeNanos() + budgetNanos;
+        Entry entry = getEntry(fontSize, fontFamily, fontWeight);
+        for (int i = 0; i < texts.length; i++) {
+            //至少测量一项，之后每项测量前检查是否超时
+            if (i > 0 && SystemClock.elapsedRealtimeNanos() > deadline)
+                return i;
+            entry.measureLayout(texts[i] == null ? "" : texts[i], maxWidth, out, i * LAYOUT_STRIDE);
+        }
+        return texts.length;
+    }
+
+    /**
+     * 适配文字的结果
+     */
+    public static class FitResult {
+        /**
+         * 能够放下文字的最大字号（dp，不含系统字体缩放）
+         */
+        public final float fontSize;
+        /**
+         * 在该字号下仍然放不下时保留的字符数（不含省略号），放得下时为文字长度
+         */
+        public final int truncateAt;
+
+        FitResult(float fontSize, int truncateAt) {
+            this.fontSize = fontSize;
+            this.truncateAt = truncateAt;
+        }
+    }
+
+    /**
+     * 计算能够在指定宽度和行数内放下文字的最大字号，最小字号仍然放不下时计算截断位置
+     * @param text        文字
+     * @param fontFamily  字体，可以为空
+     * @param fontWeight  文字粗细，可以为空
+     * @param minFontSize 最小字号
+     * @param maxFontSize 最大字号
+     * @param step        字号步长
+     * @param maxWidth    最大宽度
+     * @param maxLines    最大行数
+     * @param ellipsis    截断时添加在末尾的省略号
+     */
+    public FitResult fitText(String text, String fontFamily, String fontWeight, float minFontSize, float maxFontSize,
+                             float step, float maxWidth, int maxLines, String ellipsis) {
+        float scale = fontScale;
+        String key = text + "|" + fontFamily + "|" + fontWeight + "|" + minFontSize + "|" + maxFontSize + "|"
+                + step + "|" + maxWidth + "|" + maxLines + "|" + ellipsis + "|" + scale;
+        FitResult result = fitResults.get(key);
+        if (result != null)
+            return result;
+
+        //复制一个 TextPaint 用于修改字号，不影响缓存中的 TextPaint
+        TextPaint paint;
+        Entry entry = getEntry(maxFontSize, fontFamily, fontWeight);
+        synchronized (entry) {
+            paint = new TextPaint(entry.paint);
+        }
+        float fontSize = fitTextSize(paint, text, minFontSize, maxFontSize, step, scale, maxWidth, maxLines);
+        int truncateAt = text.length();
+        paint.setTextSize(fontSize * scale);
+        if (!fits(paint, text, maxWidth, maxLines))
+            truncateAt = findTruncateIndex(paint, text, maxWidth, maxLines, ellipsis);
+        result = new FitResult(fontSize, truncateAt);
+        fitResults.put(key, result);
+        return result;
+    }
+
+    /**
+     * 二分查找能够在指定宽度和行数内放下文字的最大字号。
+     * 字号取 minSize + n * step，都放不下时返回 minSize。会修改 paint 的字号。
+     * @param paint    用于测量的画笔
+     * @param text     文字
+     * @param minSize  最小字号
+     * @param maxSize  最大字号
+     * @param step     字号步长
+     * @param scale    字号乘以该值后设置到画笔
+     * @param maxWidth 最大宽度
+     * @param maxLines 最大行数，小于等于1表示单行
+     */
+    public static float fitTextSize(Paint paint, String text, float minSize, float maxSize, float step,
+                                    float scale, float maxWidth, int maxLines) {
+        if (step <= 0)
+            step = 1;
+        paint.setTextSize(maxSize * scale);
+        if (maxSize <= minSize || fits(paint, text, maxWidth, maxLines))
+            return maxSize;
+        int low = 0;
+        int high = (int) Math.floor((maxSize - minSize) / step);
+        //low 为已知能放下（或最小）的步数，high 以上都放不下
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            paint.setTextSize((minSize + mid * step) * scale);
+            if (fits(paint, text, maxWidth, maxLines))
+                low = mid;
+            else
+                high = mid - 1;
+        }
+        return minSize + low * step;
+    }
+
+    /**
+     * 二分查找截断位置：保留的字符数，使保留部分加上省略号能够放下
+     */
+    public static int findTruncateIndex(Paint paint, String text, float maxWidth, int maxLines, String ellipsis) {
+        String suffix = ellipsis == null ? "" : ellipsis;
+        int low = 0;
+        int high = text.length();
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (fits(paint, text.substring(0, mid) + suffix, maxWidth, maxLines))
+                low = mid;
+            else
+                high = mid - 1;
+        }
+        //不拆分代理对
+        if (low > 0 && low < text.length() && Character.isHighSurrogate(text.charAt(low - 1)))
+            low--;
+        return low;
+    }
+
+    private static boolean fits(Paint paint, String text, float maxWidth, int maxLines) {
+        if (maxLines <= 1)
+            return paint.measureText(text) <= maxWidth;
+        int width = (int) Math.floor(maxWidth);
+        if (width <= 0)
+            return false;
+        TextPaint textPaint = paint instanceof TextPaint ? (TextPaint) paint : new TextPaint(paint);
+        StaticLayout layout;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            layout = StaticLayout.Builder.obtain(text, 0, text.length(), textPaint, width)
+                    .setIncludePad(false)
+                    .build();
+        } else {
+            layout = new StaticLayout(text, textPaint, width, Layout.Alignment.ALIGN_NORMAL, 1, 0, false);
+        }
+        return layout.getLineCount() <= maxLines;
+    }
+
+    /**
+     * Android P is adding new typefaces. This should be updated by that time.
+     */
+    public static int getFontWeight(String fontWeight) {
+        if ((fontWeight == null)) return Typeface.NORMAL;
+        switch (fontWeight) {
+            case "bold":
+            case "500":
+            case "600":
+            case "700":
+            case "800":
+            case "900":
+                return Typeface.BOLD;
+            case "normal":
+            case "100":
+            case "200":
+            case "300":
+            case "400":
+            default:
+                return Typeface.NORMAL;
+        }
+    }
+}
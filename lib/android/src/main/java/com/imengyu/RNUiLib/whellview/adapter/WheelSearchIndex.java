@@ -0,0 +1,90 @@
+package com.imengyu.RNUiLib.whellview.adapter;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 滚轮数据的前缀搜索索引
+ * 把所有条目的显示文字归一化（去掉音调符号、转小写）后排序，
+ * 查找时二分定位前缀区间，避免每次都线性扫描。
+ */
+public class WheelSearchIndex {
+
+  private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+  // 排序后的归一化文字
+  private final String[] keys;
+  // keys[i] 对应的原始条目索引
+  private final int[] order;
+
+  /**
+   * Constructor
+   * @param texts 条目的显示文字，下标即为条目索引
+   */
+  public WheelSearchIndex(String[] texts) {
+    int count = texts.length;
+    final String[] normalized = new String[count];
+    Integer[] sorted = new Integer[count];
+    for (int i = 0; i < count; i++) {
+      normalized[i] = normalize(texts[i]);
+      sorted[i] = i;
+    }
+    Arrays.sort(sorted, (a, b) -> {
+      int c = normalized[a].compareTo(normalized[b]);
+      return c != 0 ? c : Integer.compare(a, b);
+    });
+
+    keys = new String[count];
+    order = new int[count];
+    for (int i = 0; i < count; i++) {
+      order[i] = sorted[i];
+      keys[i] = normalized[sorted[i]];
+    }
+  }
+
+  /**
+   * 查找第一个以 query 开头的条目
+   * @param query 查询文字
+   * @return 匹配条目中索引最小的一个，没有匹配返回 -1
+   */
+  public int find(String query) {
+    String prefix = normalize(query);
+    if (prefix.isEmpty())
+      return -1;
+    int result = -1;
+    for (int i = lowerBound(prefix); i < keys.length && keys[i].startsWith(prefix); i++) {
+      if (result == -1 || order[i] < result)
+        result = order[i];
+    }
+    return result;
+  }
+
+  /**
+   * 获取索引中的条目数
+   */
+  public int size() {
+    return keys.length;
+  }
+
+  private int lowerBound(String key) {
+    int low = 0;
+    int high = keys.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (keys[mid].compareTo(key) < 0)
+        low = mid + 1;
+      else
+        high = mid;
+    }
+    return low;
+  }
+
+  private static String normalize(String text) {
+    if (text == null)
+      return "";
+    String decomposed = Normalizer.normalize(text.trim(), Normalizer.Form.NFKD);
+    return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+  }
+}
@@ -1,6 +1,7 @@
 package com.imengyu.RNUiLib.whellview.timer;
 
 import android.os.Handler;
+import android.os.Looper;
 import android.os.Message;
 
 import com.imengyu.RNUiLib.whellview.view.WheelView;
@@ -22,6 +23,15 @@ public final class MessageHandler extends Handler {
         this.wheelView = wheelView;
     }
 
+    /**
+     * @param looper    消息执行的线程，滚动任务需要使用主线程
+     * @param wheelView 滚轮控件
+     */
+    public MessageHandler(Looper looper, com.imengyu.RNUiLib.whellview.view.WheelView wheelView) {
+        super(looper);
+        this.wheelView = wheelView;
+    }
+
     @Override
     public final void handleMessage(Message msg) {
         switch (msg.what) {
@@ -0,0 +1,51 @@
+package com.imengyu.RNUiLib.whellview.timer;
+
+import android.os.SystemClock;
+
+import com.imengyu.RNUiLib.whellview.view.WheelView;
+
+import java.util.TimerTask;
+
+/**
+ * 带动画滚动到指定位置的实现
+ * 按时间插值（减速曲线），与刷新间隔无关，结束时精确停在目标位置。
+ */
+public final class ScrollToIndexTimerTask extends TimerTask {
+
+    private final WheelView wheelView;
+    private final float fromScrollY;
+    private final float toScrollY;
+    private final long durationMs;
+    private long startTime = -1;
+
+    /**
+     * @param wheelView   滚轮对象
+     * @param fromScrollY 开始时的滚动高度
+     * @param toScrollY   目标滚动高度
+     * @param durationMs  动画时长
+     */
+    public ScrollToIndexTimerTask(WheelView wheelView, float fromScrollY, float toScrollY, long durationMs) {
+        this.wheelView = wheelView;
+        this.fromScrollY = fromScrollY;
+        this.toScrollY = toScrollY;
+        this.durationMs = durationMs;
+    }
+
+    @Override
+    public final void run() {
+        long now = SystemClock.uptimeMillis();
+        if (startTime < 0) {
+            startTime = now;
+        }
+        float t = Math.min(1F, (float) (now - startTime) / durationMs);
+        float fraction = 1F - (1F - t) * (1F - t);//减速
+
+        wheelView.setTotalScrollY(fromScrollY + (toScrollY - fromScrollY) * fraction);
+        wheelView.invalidate();
+
+        if (t >= 1F) {
+            wheelView.cancelFuture();
+            wheelView.getHandler().sendEmptyMessage(MessageHandler.WHAT_ITEM_SELECTED);
+        }
+    }
+}
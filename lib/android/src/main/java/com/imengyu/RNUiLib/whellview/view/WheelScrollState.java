@@ -0,0 +1,42 @@
+package com.imengyu.RNUiLib.whellview.view;
+
+/**
+ * WheelView 的滚动状态快照（不可变）
+ * 只有UI线程会创建新的快照并替换，其他线程读取到的总是一个完整一致的状态，
+ * onDraw 在一帧内也只使用同一个快照，不会出现绘制到一半状态被改写的情况。
+ */
+public final class WheelScrollState {
+
+    public static final WheelScrollState INITIAL = new WheelScrollState(0, -1, 0);
+
+    /**
+     * 当前滚动总高度
+     */
+    public final float totalScrollY;
+    /**
+     * 滚动开始时的选中项（滚动高度为0时中间的条目）
+     */
+    public final int initPosition;
+    /**
+     * 最近一次绘制时位于中间的条目（未做范围修正）
+     */
+    public final int selectedItem;
+
+    public WheelScrollState(float totalScrollY, int initPosition, int selectedItem) {
+        this.totalScrollY = totalScrollY;
+        this.initPosition = initPosition;
+        this.selectedItem = selectedItem;
+    }
+
+    public WheelScrollState withTotalScrollY(float totalScrollY) {
+        return totalScrollY == this.totalScrollY ? this : new WheelScrollState(totalScrollY, initPosition, selectedItem);
+    }
+
+    public WheelScrollState withInitPosition(int initPosition) {
+        return initPosition == this.initPosition ? this : new WheelScrollState(totalScrollY, initPosition, selectedItem);
+    }
+
+    public WheelScrollState withSelectedItem(int selectedItem) {
+        return selectedItem == this.selectedItem ? this : new WheelScrollState(totalScrollY, initPosition, selectedItem);
+    }
+}
@@ -7,6 +7,7 @@ import android.graphics.Paint;
 import android.graphics.Rect;
 import android.graphics.Typeface;
 import android.os.Handler;
+import android.os.Looper;
 import android.text.TextUtils;
 import android.util.AttributeSet;
 import android.util.DisplayMetrics;
@@ -17,18 +18,18 @@ import android.view.MotionEvent;
 import android.view.View;
 
 import com.imengyu.RNUiLib.R;
+import com.imengyu.RNUiLib.utils.TextMeasurer;
 import com.imengyu.RNUiLib.whellview.adapter.WheelAdapter;
+import com.imengyu.RNUiLib.whellview.adapter.WheelSearchIndex;
 import com.imengyu.RNUiLib.whellview.interfaces.IPickerViewData;
 import com.imengyu.RNUiLib.whellview.listener.LoopViewGestureListener;
 import com.imengyu.RNUiLib.whellview.listener.OnItemSelectedListener;
 import com.imengyu.RNUiLib.whellview.timer.InertiaTimerTask;
 import com.imengyu.RNUiLib.whellview.timer.MessageHandler;
+import com.imengyu.RNUiLib.whellview.timer.ScrollToIndexTimerTask;
 import com.imengyu.RNUiLib.whellview.timer.SmoothScrollTimerTask;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.TimerTask;
 
 /**
  * 3d滚轮控件
@@ -55,15 +56,29 @@ public class WheelView extends View {
     private boolean isOptions = false;
     private boolean isCenterLabel = true;
 
-    // Timer mTimer;
-    private ScheduledExecutorService mExecutor = Executors.newSingleThreadScheduledExecutor();
-    private ScheduledFuture<?> mFuture;
+    // 当前的滚动任务。所有滚动任务都通过 handler 在UI线程中执行，滚动状态只有UI线程会修改
+    private TimerTask mScrollTask;
+    private long mScrollTaskPeriod;
+    private final Runnable mScrollTicker = new Runnable() {
+        @Override
+        public void run() {
+            TimerTask task = mScrollTask;
+            if (task == null) {
+                return;
+            }
+            task.run();
+            if (mScrollTask == task) {//任务没有被取消或替换，继续下一次
+                handler.postDelayed(this, mScrollTaskPeriod);
+            }
+        }
+    };
 
     private Paint paintOuterText;
     private Paint paintCenterText;
     private Paint paintIndicator;
 
-    private WheelAdapter adapter;
+    private volatile WheelAdapter adapter;
+    private WheelSearchIndex searchIndex;//搜索索引，首次搜索时创建
 
     private String label;//附加单位
     private int textSize;//选项的文字大小
@@ -90,15 +105,8 @@ public class WheelView extends View {
     //中间label绘制的Y坐标
     private float centerY;
 
-    //当前滚动总高度y值
-    private float totalScrollY;
-
-    //初始化默认选中项
-    private int initPosition;
-
-    //选中的Item是第几个
-    private int selectedItem;
-    private int preCurrentIndex;
+    //滚动状态（当前滚动总高度、初始化默认选中项、选中的Item是第几个），只在UI线程中替换
+    private volatile WheelScrollState scrollState = WheelScrollState.INITIAL;
 
     // 绘制几个条目，实际上第一项和最后一项Y轴压缩成0%了，所以可见的数目实际为9
     private int itemsVisible = 11;
@@ -109,7 +117,6 @@ public class WheelView extends View {
     // 半径
     private int radius;
 
-    private int mOffset = 0;
     private float previousY = 0;
     private long startTime = 0;
 
@@ -176,31 +183,39 @@ public class WheelView extends View {
 
     private void initLoopView(Context context) {
         this.context = context;
-        handler = new MessageHandler(this);
+        //选择器可能在 native modules 线程中构建，handler 必须绑定主线程，滚动任务和选中通知才会在UI线程中执行
+        handler = new MessageHandler(Looper.getMainLooper(), this);
         gestureDetector = new GestureDetector(context, new LoopViewGestureListener(this));
         gestureDetector.setIsLongpressEnabled(false);
         isLoop = true;
 
-        totalScrollY = 0;
-        initPosition = -1;
+        scrollState = WheelScrollState.INITIAL;
         initPaints();
     }
 
     private void initPaints() {
-        paintOuterText = new Paint();
+        //复用时重置已有的画笔，避免重新创建
+        if (paintOuterText == null) {
+            paintOuterText = new Paint();
+            paintCenterText = new Paint();
+            paintIndicator = new Paint();
+        } else {
+            paintOuterText.reset();
+            paintCenterText.reset();
+            paintIndicator.reset();
+        }
+
         paintOuterText.setColor(textColorOut);
         paintOuterText.setAntiAlias(true);
         paintOuterText.setTypeface(typeface);
         paintOuterText.setTextSize(textSize);
 
-        paintCenterText = new Paint();
         paintCenterText.setColor(textColorCenter);
         paintCenterText.setAntiAlias(true);
         paintCenterText.setTextScaleX(1.1F);
         paintCenterText.setTypeface(typeface);
         paintCenterText.setTextSize(textSize);
 
-        paintIndicator = new Paint();
         paintIndicator.setColor(dividerColor);
         paintIndicator.setAntiAlias(true);
 
@@ -208,6 +223,7 @@ public class WheelView extends View {
     }
 
     private void reMeasure() {//重新测量
+        WheelAdapter adapter = this.adapter;
         if (adapter == null) {
             return;
         }
@@ -228,20 +244,50 @@ public class WheelView extends View {
         centerY = secondLineY - (itemHeight - maxTextHeight) / 2.0f - CENTER_CONTENT_OFFSET;
 
         //初始化显示的item的position
-        if (initPosition == -1) {
-            if (isLoop) {
-                initPosition = (adapter.getItemsCount() + 1) / 2;
-            } else {
-                initPosition = 0;
-            }
+        if (scrollState.initPosition == -1) {
+            updateScrollState(scrollState.withInitPosition(isLoop ? (adapter.getItemsCount() + 1) / 2 : 0));
+        }
+    }
+
+    /**
+     * 替换滚动状态。添加到窗口后滚动状态只允许UI线程修改，保证只有一个写入者；
+     * 添加到窗口之前视图只被创建它的线程（例如在 native modules 线程中构建选择器）使用，可以直接修改
+     */
+    private void updateScrollState(WheelScrollState state) {
+        if (!isOwnerThread()) {
+            throw new IllegalStateException("WheelView scroll state must be changed on the UI thread");
+        }
+        scrollState = state;
+    }
+
+    private boolean isOwnerThread() {
+        return !isAttachedToWindow() || Looper.myLooper() == Looper.getMainLooper();
+    }
+
+    /**
+     * 在UI线程中执行，当前已是UI线程或者还没有添加到窗口时立即执行，
+     * 保证构建选择器时 setCurrentItem 之后立即调用 getCurrentItem 能获取到新的值
+     */
+    private void runOnOwnerThread(Runnable runnable) {
+        if (isOwnerThread()) {
+            runnable.run();
+        } else {
+            handler.post(runnable);
         }
-        preCurrentIndex = initPosition;
+    }
+
+    /**
+     * 获取当前滚动状态快照，可在任意线程调用
+     */
+    public WheelScrollState getScrollState() {
+        return scrollState;
     }
 
     /**
      * 计算最大length的Text的宽高度
      */
     private void measureTextWidthHeight() {
+        WheelAdapter adapter = this.adapter;
         Rect rect = new Rect();
         for (int i = 0; i < adapter.getItemsCount(); i++) {
             String s1 = getContentText(adapter.getItem(i));
@@ -258,28 +304,75 @@ public class WheelView extends View {
     }
 
     public void smoothScroll(ACTION action) {//平滑滚动的实现
+        smoothScroll(action, 0);
+    }
+
+    /**
+     * @param action      滚动类型
+     * @param clickOffset 点击时需要滚动的距离，仅 CLICK 时有效
+     */
+    private void smoothScroll(ACTION action, int clickOffset) {
         cancelFuture();
+        int offset = clickOffset;
         if (action == ACTION.FLING || action == ACTION.DAGGLE) {
-            mOffset = (int) ((totalScrollY % itemHeight + itemHeight) % itemHeight);
-            if ((float) mOffset > itemHeight / 2.0F) {//如果超过Item高度的一半，滚动到下一个Item去
-                mOffset = (int) (itemHeight - (float) mOffset);
+            float totalScrollY = scrollState.totalScrollY;
+            offset = (int) ((totalScrollY % itemHeight + itemHeight) % itemHeight);
+            if ((float) offset > itemHeight / 2.0F) {//如果超过Item高度的一半，滚动到下一个Item去
+                offset = (int) (itemHeight - (float) offset);
             } else {
-                mOffset = -mOffset;
+                offset = -offset;
             }
         }
         //停止的时候，位置有偏移，不是全部都能正确停止到中间位置的，这里把文字位置挪回中间去
-        mFuture = mExecutor.scheduleWithFixedDelay(new SmoothScrollTimerTask(this, mOffset), 0, 10, TimeUnit.MILLISECONDS);
+        startScrollTask(new SmoothScrollTimerTask(this, offset), 10);
     }
 
     public final void scrollBy(float velocityY) {//滚动惯性的实现
         cancelFuture();
-        mFuture = mExecutor.scheduleWithFixedDelay(new InertiaTimerTask(this, velocityY), 0, VELOCITY_FLING, TimeUnit.MILLISECONDS);
+        startScrollTask(new InertiaTimerTask(this, velocityY), VELOCITY_FLING);
+    }
+
+    /**
+     * 带动画地滚动到指定条目。
+     * 正在进行的惯性滚动或其他动画会被取消，新动画从当前位置开始，因此连续调用会衔接成一个连贯的动画。
+     *
+     * @param index      条目索引
+     * @param durationMs 动画时长，小于等于0时直接跳转
+     */
+    public final void scrollToIndex(int index, int durationMs) {
+        WheelAdapter adapter = this.adapter;
+        WheelScrollState state = scrollState;
+        if (adapter == null || adapter.getItemsCount() == 0) {
+            setCurrentItem(index);
+            return;
+        }
+        index = Math.max(0, Math.min(index, adapter.getItemsCount() - 1));
+        if (durationMs <= 0 || itemHeight <= 0 || state.initPosition < 0) {//还未测量，无法计算滚动距离
+            setCurrentItem(index);
+            return;
+        }
+        cancelFuture();
+
+        float targetScrollY = (index - state.initPosition) * itemHeight;
+        if (isLoop) {//循环模式下选择最近的方向
+            float circumference = adapter.getItemsCount() * itemHeight;
+            float turns = Math.round((state.totalScrollY - targetScrollY) / circumference);
+            targetScrollY += turns * circumference;
+        }
+        startScrollTask(new ScrollToIndexTimerTask(this, state.totalScrollY, targetScrollY, durationMs), 10);
+    }
+
+    private void startScrollTask(TimerTask task, long period) {
+        mScrollTask = task;
+        mScrollTaskPeriod = period;
+        handler.removeCallbacks(mScrollTicker);
+        handler.post(mScrollTicker);
     }
 
     public void cancelFuture() {
-        if (mFuture != null && !mFuture.isCancelled()) {
-            mFuture.cancel(true);
-            mFuture = null;
+        if (mScrollTask != null) {
+            mScrollTask = null;
+            handler.removeCallbacks(mScrollTicker);
         }
     }
 
@@ -306,12 +399,17 @@ public class WheelView extends View {
         }
     }
 
-    public final void setCurrentItem(int currentItem) {
-        //不添加这句,当这个wheelView不可见时,默认都是0,会导致获取到的时间错误
-        this.selectedItem = currentItem;
-        this.initPosition = currentItem;
-        totalScrollY = 0;//回归顶部，不然重设setCurrentItem的话位置会偏移的，就会显示出不对位置的数据
-        invalidate();
+    public final void setCurrentItem(final int currentItem) {
+        runOnOwnerThread(new Runnable() {
+            @Override
+            public void run() {
+                cancelFuture();//正在进行的滚动会覆盖新的位置，先停止
+                //不添加这句,当这个wheelView不可见时,默认都是0,会导致获取到的时间错误
+                //回归顶部，不然重设setCurrentItem的话位置会偏移的，就会显示出不对位置的数据
+                updateScrollState(new WheelScrollState(0, currentItem, currentItem));
+                invalidate();
+            }
+        });
     }
 
     public final void setOnItemSelectedListener(OnItemSelectedListener OnItemSelectedListener) {
@@ -320,8 +418,55 @@ public class WheelView extends View {
 
     public final void setAdapter(WheelAdapter adapter) {
         this.adapter = adapter;
-        reMeasure();
-        invalidate();
+        this.searchIndex = null;
+        runOnOwnerThread(mRemeasureRunnable);
+    }
+
+    /**
+     * 适配器中的数据发生变化后调用，会重新测量并丢弃搜索索引
+     */
+    public final void notifyDataSetChanged() {
+        this.searchIndex = null;
+        runOnOwnerThread(mRemeasureRunnable);
+    }
+
+    //重新测量会修改滚动状态和绘制用的尺寸，添加到窗口后只在UI线程中执行
+    private final Runnable mRemeasureRunnable = new Runnable() {
+        @Override
+        public void run() {
+            reMeasure();
+            invalidate();
+        }
+    };
+
+    /**
+     * 获取当前适配器的搜索索引，每个适配器只会创建一次
+     *
+     * @return 搜索索引，没有适配器时返回 null
+     */
+    public final WheelSearchIndex getSearchIndex() {
+        if (adapter == null) {
+            return null;
+        }
+        if (searchIndex == null) {
+            String[] texts = new String[adapter.getItemsCount()];
+            for (int i = 0; i < texts.length; i++) {
+                texts[i] = getContentText(adapter.getItem(i));
+            }
+            searchIndex = new WheelSearchIndex(texts);
+        }
+        return searchIndex;
+    }
+
+    /**
+     * 查找第一个以 query 开头的条目
+     *
+     * @param query 查询文字
+     * @return 条目索引，没有匹配返回 -1
+     */
+    public final int findItem(String query) {
+        WheelSearchIndex index = getSearchIndex();
+        return index != null ? index.find(query) : -1;
     }
 
     public void setItemsVisibleCount(int visibleCount) {
@@ -340,7 +485,8 @@ public class WheelView extends View {
     }
 
     public final int getCurrentItem() {
-        // return selectedItem;
+        WheelAdapter adapter = this.adapter;
+        int selectedItem = scrollState.selectedItem;
         if (adapter == null) {
             return 0;
         }
@@ -350,24 +496,74 @@ public class WheelView extends View {
         return Math.max(0, Math.min(selectedItem, adapter.getItemsCount() - 1));
     }
 
+    private final Runnable mItemSelectedNotifier = new Runnable() {
+        @Override
+        public void run() {
+            if (onItemSelectedListener != null) {
+                onItemSelectedListener.onItemSelected(getCurrentItem());
+            }
+        }
+    };
+
     public final void onItemSelected() {
         if (onItemSelectedListener != null) {
-            postDelayed(new Runnable() {
-                @Override
-                public void run() {
-                    onItemSelectedListener.onItemSelected(getCurrentItem());
-                }
-            }, 200L);
+            //连续多次选中只通知最后一次
+            handler.removeCallbacks(mItemSelectedNotifier);
+            handler.postDelayed(mItemSelectedNotifier, 200L);
         }
     }
 
+    /**
+     * 把控件恢复到刚创建时的状态，用于复用控件。
+     * 会停止所有滚动任务和未发出的选中通知，并清除适配器与监听器。
+     */
+    public void reset() {
+        cancelFuture();
+        handler.removeCallbacksAndMessages(null);
+
+        adapter = null;
+        searchIndex = null;
+        onItemSelectedListener = null;
+        scrollState = WheelScrollState.INITIAL;
+
+        dividerType = null;
+        label = null;
+        textSize = getResources().getDimensionPixelSize(R.dimen.pickerview_textsize);
+        maxTextWidth = 0;
+        maxTextHeight = 0;
+        textXOffset = 0;
+        itemHeight = 0;
+        typeface = Typeface.MONOSPACE;
+        textColorOut = 0;
+        textColorCenter = 0;
+        dividerColor = 0;
+        dividerWidth = 0;
+        lineSpacingMultiplier = 1.6F;
+        isLoop = true;
+        itemsVisible = 11;
+        mGravity = Gravity.CENTER;
+        isAlphaGradient = false;
+        isOptions = false;
+        isCenterLabel = true;
+
+        initPaints();
+        requestLayout();
+        invalidate();
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
+        WheelAdapter adapter = this.adapter;
         if (adapter == null) {
             return;
         }
+        //一帧内只使用同一个状态快照
+        WheelScrollState state = scrollState;
+        float totalScrollY = state.totalScrollY;
         //initPosition越界会造成preCurrentIndex的值不正确
-        initPosition = Math.min(Math.max(0, initPosition), adapter.getItemsCount() - 1);
+        int initPosition = Math.min(Math.max(0, state.initPosition), adapter.getItemsCount() - 1);
+        int selectedItem = state.selectedItem;
+        int preCurrentIndex = initPosition;
 
         //滚动的Y值高度除去每行Item的高度，得到滚动了多少个item，即change数
         //滚动偏移值,用于记录滚动了多少个item
@@ -545,6 +741,10 @@ public class WheelView extends View {
             }
             counter++;
         }
+        //只更新绘制得到的结果，期间如果状态已被替换则以新状态为准
+        if (scrollState == state) {
+            updateScrollState(state.withInitPosition(initPosition).withSelectedItem(selectedItem));
+        }
     }
 
     //设置文字倾斜角度，透明度
@@ -571,17 +771,9 @@ public class WheelView extends View {
      * @param contentText item text content.
      */
     private void reMeasureTextSize(String contentText) {
-        Rect rect = new Rect();
-        paintCenterText.getTextBounds(contentText, 0, contentText.length(), rect);
-        int width = rect.width();
-        int size = textSize;
-        while (width > measuredWidth) {
-            size--;
-            //设置2条横线中间的文字大小
-            paintCenterText.setTextSize(size);
-            paintCenterText.getTextBounds(contentText, 0, contentText.length(), rect);
-            width = rect.width();
-        }
+        //设置2条横线中间的文字大小
+        int size = (int) TextMeasurer.fitTextSize(paintCenterText, contentText, 1, textSize, 1, 1, measuredWidth, 1);
+        paintCenterText.setTextSize(size);
         //设置2条横线外面的文字大小
         paintOuterText.setTextSize(size);
     }
@@ -670,9 +862,14 @@ public class WheelView extends View {
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
+        WheelAdapter adapter = this.adapter;
+        if (adapter == null) {
+            return super.onTouchEvent(event);
+        }
         boolean eventConsumed = gestureDetector.onTouchEvent(event);
         boolean isIgnore = false;//超过边界滑动时，不再绘制UI。
 
+        int initPosition = scrollState.initPosition;
         float top = -initPosition * itemHeight;
         float bottom = (adapter.getItemsCount() - 1 - initPosition) * itemHeight;
         float ratio = 0.25f;
@@ -688,7 +885,7 @@ public class WheelView extends View {
             case MotionEvent.ACTION_MOVE:
                 float dy = previousY - event.getRawY();
                 previousY = event.getRawY();
-                totalScrollY = totalScrollY + dy;
+                float totalScrollY = scrollState.totalScrollY + dy;
 
                 // normal mode。
                 if (!isLoop) {
@@ -701,6 +898,7 @@ public class WheelView extends View {
                         isIgnore = false;
                     }
                 }
+                setTotalScrollY(totalScrollY);
                 break;
 
             case MotionEvent.ACTION_UP:
@@ -723,16 +921,17 @@ public class WheelView extends View {
                     double L = Math.acos((radius - y) / radius) * radius;
                     //item0 有一半是在不可见区域，所以需要加上 itemHeight / 2
                     int circlePosition = (int) ((L + itemHeight / 2) / itemHeight);
-                    float extraOffset = (totalScrollY % itemHeight + itemHeight) % itemHeight;
+                    float scrollY = scrollState.totalScrollY;
+                    float extraOffset = (scrollY % itemHeight + itemHeight) % itemHeight;
                     //已滑动的弧长值
-                    mOffset = (int) ((circlePosition - itemsVisible / 2) * itemHeight - extraOffset);
+                    int offset = (int) ((circlePosition - itemsVisible / 2) * itemHeight - extraOffset);
 
                     if ((System.currentTimeMillis() - startTime) > 120) {
                         // 处理拖拽事件
                         smoothScroll(ACTION.DAGGLE);
                     } else {
                         // 处理条目点击事件
-                        smoothScroll(ACTION.CLICK);
+                        smoothScroll(ACTION.CLICK, offset);
                     }
                 }
                 break;
@@ -743,6 +942,14 @@ public class WheelView extends View {
         return true;
     }
 
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        //移除窗口后不再继续滚动动画和发出选中通知
+        cancelFuture();
+        handler.removeCallbacksAndMessages(null);
+    }
+
     @Override
     public boolean dispatchTouchEvent(MotionEvent event) {
         super.dispatchTouchEvent(event);
@@ -826,11 +1033,14 @@ public class WheelView extends View {
     }
 
     public float getTotalScrollY() {
-        return totalScrollY;
+        return scrollState.totalScrollY;
     }
 
+    /**
+     * 设置滚动高度，只能在UI线程中调用（滚动任务也运行在UI线程中）
+     */
     public void setTotalScrollY(float totalScrollY) {
-        this.totalScrollY = totalScrollY;
+        updateScrollState(scrollState.withTotalScrollY(totalScrollY));
     }
 
     public float getItemHeight() {
@@ -838,7 +1048,7 @@ public class WheelView extends View {
     }
 
     public int getInitPosition() {
-        return initPosition;
+        return scrollState.initPosition;
     }
 
     @Override
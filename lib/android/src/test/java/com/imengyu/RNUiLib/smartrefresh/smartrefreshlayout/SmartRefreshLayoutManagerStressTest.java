@@ -0,0 +1,106 @@
+package com.imengyu.RNUiLib.smartrefresh.smartrefreshlayout;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Activity;
+import android.os.Looper;
+import android.view.View;
+import android.widget.FrameLayout;
+import android.widget.ScrollView;
+
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.uimanager.ThemedReactContext;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 反复挂载、卸载大量刷新布局，确认 SmartRefreshLayoutManager 不会持有已卸载的布局，
+ * 并且每个布局的刷新头都使用自己的 context
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 29)
+public class SmartRefreshLayoutManagerStressTest {
+
+    private static final int ROUNDS = 5;
+    private static final int LAYOUTS_PER_ROUND = 40;
+
+    private Activity activity;
+    private ReactApplicationContext reactContext;
+    private FrameLayout root;
+    private SmartRefreshLayoutManager manager;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        reactContext = new ReactApplicationContext(activity);
+        root = new FrameLayout(activity);
+        activity.setContentView(root);
+        manager = new SmartRefreshLayoutManager();
+    }
+
+    @Test
+    public void mountAndUnmountManyLayouts() {
+        List<WeakReference<ReactSmartRefreshLayout>> unmounted = new ArrayList<>();
+        for (int round = 0; round < ROUNDS; round++) {
+            List<ReactSmartRefreshLayout> mounted = new ArrayList<>();
+            for (int i = 0; i < LAYOUTS_PER_ROUND; i++) {
+                ThemedReactContext themedContext = new ThemedReactContext(reactContext, activity);
+                ReactSmartRefreshLayout layout = mount(themedContext);
+                //每个布局的刷新头使用布局自己的 context，而不是最后创建的那个
+                assertSame(themedContext, layout.getRefreshHeader().getView().getContext());
+                mounted.add(layout);
+            }
+            shadowOf(Looper.getMainLooper()).idle();
+            assertEquals(LAYOUTS_PER_ROUND, root.getChildCount());
+
+            for (ReactSmartRefreshLayout layout : mounted) {
+                root.removeView(layout);
+                manager.onDropViewInstance(layout);
+                unmounted.add(new WeakReference<>(layout));
+            }
+            mounted.clear();
+            shadowOf(Looper.getMainLooper()).idle();
+            assertEquals(0, root.getChildCount());
+        }
+
+        //卸载后的布局都可以被回收，内存不随挂载次数增长
+        assertEquals(0, countRetained(unmounted));
+    }
+
+    private ReactSmartRefreshLayout mount(ThemedReactContext themedContext) {
+        ReactSmartRefreshLayout layout = manager.createViewInstance(themedContext);
+        manager.addEventEmitters(themedContext, layout);
+        manager.addView(layout, new View(themedContext), 0);
+        ScrollView content = new ScrollView(themedContext);
+        content.addView(new View(themedContext));
+        manager.addView(layout, content, 1);
+        root.addView(layout, new FrameLayout.LayoutParams(
+                FrameLayout.LayoutParams.MATCH_PARENT, 400));
+        return layout;
+    }
+
+    private static int countRetained(List<WeakReference<ReactSmartRefreshLayout>> references) {
+        int retained = references.size();
+        for (int attempt = 0; attempt < 20 && retained > 0; attempt++) {
+            System.gc();
+            System.runFinalization();
+            retained = 0;
+            for (WeakReference<ReactSmartRefreshLayout> reference : references) {
+                if (reference.get() != null)
+                    retained++;
+            }
+        }
+        return retained;
+    }
+}
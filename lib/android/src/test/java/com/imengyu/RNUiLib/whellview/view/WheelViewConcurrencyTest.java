@@ -0,0 +1,198 @@
+package com.imengyu.RNUiLib.whellview.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Activity;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.view.ViewGroup;
+
+import com.imengyu.RNUiLib.whellview.adapter.ArrayWheelAdapter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * WheelView 滚动状态的并发测试：
+ * 模拟在 native modules 线程中构建选择器，以及滚动的同时在其他线程中设置选中项和替换适配器
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 29)
+public class WheelViewConcurrencyTest {
+
+    private static final int ITERATIONS = 200;
+
+    private Activity activity;
+    private HandlerThread nativeModulesThread;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        nativeModulesThread = new HandlerThread("mqt_native_modules");
+        nativeModulesThread.start();
+    }
+
+    @After
+    public void tearDown() {
+        nativeModulesThread.quitSafely();
+    }
+
+    @Test
+    public void buildOnNativeModulesThreadThenFling() throws Throwable {
+        final AtomicReference<WheelView> created = new AtomicReference<>();
+        runOnNativeModulesThread(() -> {
+            WheelView view = new WheelView(activity);
+            view.setCyclic(false);
+            view.setAdapter(createAdapter(30));
+            view.setCurrentItem(5);
+            //添加到窗口之前立即生效
+            assertEquals(5, view.getCurrentItem());
+            created.set(view);
+        });
+        WheelView wheelView = created.get();
+        assertSame(Looper.getMainLooper(), wheelView.getHandler().getLooper());
+
+        //与对话框选择器相同：添加到窗口后用户滑动
+        attach(wheelView);
+        wheelView.scrollBy(-3000);
+        idleFrames(wheelView, 200);
+        wheelView.scrollBy(3000);
+        idleFrames(wheelView, 200);
+
+        assertInRange(wheelView);
+    }
+
+    @Test
+    public void flingWhileOtherThreadsSetItemsAndSwapAdapters() throws Throwable {
+        final WheelView wheelView = new WheelView(activity);
+        wheelView.setAdapter(createAdapter(30));
+        attach(wheelView);
+
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(2);
+        Thread setItems = new Thread(() -> {
+            try {
+                start.await();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    wheelView.setCurrentItem(i % 30);
+                    wheelView.getCurrentItem();
+                    wheelView.getScrollState();
+                }
+            } catch (Throwable e) {
+                error.compareAndSet(null, e);
+            } finally {
+                done.countDown();
+            }
+        });
+        Thread swapAdapters = new Thread(() -> {
+            try {
+                start.await();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    wheelView.setAdapter(createAdapter(10 + i % 20));
+                    wheelView.getCurrentItem();
+                }
+            } catch (Throwable e) {
+                error.compareAndSet(null, e);
+            } finally {
+                done.countDown();
+            }
+        });
+        setItems.start();
+        swapAdapters.start();
+        start.countDown();
+
+        //UI线程同时滑动、动画滚动并绘制
+        int i = 0;
+        while (done.getCount() > 0) {
+            if (i % 2 == 0)
+                wheelView.scrollBy(i % 4 == 0 ? 2500 : -2500);
+            else
+                wheelView.scrollToIndex(i % 10, 100);
+            idleFrames(wheelView, 3);
+            i++;
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        idleFrames(wheelView, 300);
+
+        assertNull(error.get());
+        assertInRange(wheelView);
+    }
+
+    @Test
+    public void detachStopsScrollTasks() {
+        WheelView wheelView = new WheelView(activity);
+        wheelView.setAdapter(createAdapter(30));
+        attach(wheelView);
+
+        wheelView.scrollBy(-3000);
+        idleFrames(wheelView, 2);
+        ((ViewGroup) wheelView.getParent()).removeView(wheelView);
+
+        float totalScrollY = wheelView.getTotalScrollY();
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(2));
+        assertEquals(totalScrollY, wheelView.getTotalScrollY(), 0f);
+    }
+
+    private void attach(WheelView wheelView) {
+        activity.setContentView(wheelView, new ViewGroup.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    private static void idleFrames(WheelView wheelView, int frames) {
+        Canvas canvas = new Canvas(Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888));
+        for (int i = 0; i < frames; i++) {
+            shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(16));
+            wheelView.draw(canvas);
+        }
+    }
+
+    private static void assertInRange(WheelView wheelView) {
+        int current = wheelView.getCurrentItem();
+        assertTrue(current >= 0 && current < wheelView.getItemsCount());
+    }
+
+    private void runOnNativeModulesThread(final Runnable runnable) throws Throwable {
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        new Handler(nativeModulesThread.getLooper()).post(() -> {
+            try {
+                runnable.run();
+            } catch (Throwable e) {
+                error.set(e);
+            } finally {
+                latch.countDown();
+            }
+        });
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        if (error.get() != null)
+            throw error.get();
+    }
+
+    private static ArrayWheelAdapter<String> createAdapter(int count) {
+        List<String> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            items.add("Item " + i);
+        return new ArrayWheelAdapter<>(items);
+    }
+}
@@ -183,6 +183,12 @@ export interface PickerItem {
   label: string,
   value: unknown,
 }
+export interface PickerTreeItem extends PickerItem {
+  /**
+   * 下一级数据
+   */
+  children?: PickerTreeItem[],
+}
 export interface PickerOptionsProps extends PickerBaseProps  {
   /**
    * 设置X轴偏移量，形成弧度
@@ -217,6 +223,11 @@ export interface PickerOptionsProps extends PickerBaseProps  {
     PickerItem[][],
     PickerItem[][][]
   ],
+  /**
+   * N级联动数据（树形结构，层数不限）
+   * 注意：设置后 nPicker 和 picker 无效
+   */
+  treePicker?: PickerTreeItem[],
   /**
    * 初始选中的条目索引
    */
@@ -265,6 +276,65 @@ function convertTimePickerModeToIOSPicker(options?: boolean[]) {
 
 type OptionsPickerSelectCallback = (selectedValue: unknown[], selectedLabel: (string|undefined)[], selectedIndex: number[]) => void;
 
+//去掉 value，只把显示需要的数据传给原生端
+function convertTreeItemsToNative(items: PickerTreeItem[]): { label: string, children?: unknown[] }[] {
+  return items.map((item) => ({
+    label: item.label,
+    children: item.children && item.children.length > 0 ? convertTreeItemsToNative(item.children) : undefined,
+  }));
+}
+function showTreeOptionsPickerView(options: PickerOptionsProps, treePicker: PickerTreeItem[], selectCallback: OptionsPickerSelectCallback, dismissCallback?: () => void) {
+  function selectedHandler(selectedIndex: number[]) {
+    const selectedValue = [] as unknown[];
+    const selectedLabel = [] as (string|undefined)[];
+    let items = treePicker as PickerTreeItem[]|undefined;
+    for (const index of selectedIndex) {
+      const item = items?.[index];
+      if (!item)
+        break;
+      selectedValue.push(item.value);
+      selectedLabel.push(item.label);
+      items = item.children;
+    }
+    selectCallback(selectedValue, selectedLabel, selectedIndex);
+  }
+
+  if (isAndroid) {
+    PickerViewAndroid.showOptionsPickerView({
+      ...options,
+      treePicker: convertTreeItemsToNative(treePicker),
+    }, selectedHandler, dismissCallback || (() => {}));
+  }
+  else if (isIOS) {
+    //原生数据是 { parentKey, key, value } 这种格式，使用索引路径作为 key 保证唯一
+    const array = [] as unknown[];
+    const flatten = (items: PickerTreeItem[], parentKey: string) => {
+      items.forEach((item, i) => {
+        const key = parentKey === '-1' ? `${i}` : `${parentKey}-${i}`;
+        array.push({ parentKey, key, value: item.label });
+        if (item.children)
+          flatten(item.children, key);
+      });
+    };
+    flatten(treePicker, '-1');
+
+    PickerViewIOS.showOptionsPickerView({
+      pickerMode: PickerViewIOS.BRStringPickerComponentLinkage,
+      title: options.titleText,
+      pickerStyle: convertStyleToIOSPickerStyle(options),
+      array,
+      selectIndexs: options.selectOptions,
+      selectIndex: 0,
+    }, (...selectedIndex: number[]) => {
+      //iOS 回调的数组会被展开为多个参数，这里重新合并为数组
+      selectedHandler(selectedIndex);
+    }, dismissCallback || (() => {}));
+  }
+  else {
+    throw new Error('Not implemented');
+  }
+}
+
 /**
  * 内置选择器
  */
@@ -320,10 +390,16 @@ export const Picker = {
     const {
       nPicker,
       picker,
+      treePicker,
       selectOptions,
       titleText,
     } = options;
 
+    if (treePicker) {
+      showTreeOptionsPickerView(options, treePicker, selectCallback, dismissCallback);
+      return;
+    }
+
     function selectedHandler(option1: number, option2: number, option3: number) {
       const selectedIndex = [ option1, option2, option3 ];
       //非联动数据
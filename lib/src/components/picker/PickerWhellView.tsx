@@ -1,5 +1,5 @@
 import React, { createRef } from 'react';
-import { findNodeHandle, HostComponent, NativeSyntheticEvent, requireNativeComponent, StyleSheet, UIManager, View, ViewStyle } from 'react-native';
+import { findNodeHandle, HostComponent, NativeModules, NativeSyntheticEvent, requireNativeComponent, StyleSheet, UIManager, View, ViewStyle } from 'react-native';
 import { Color } from '../../styles';
 import { ThemeColor, ThemeContext } from '../../theme/Theme';
 import { isAndroid, isIOS } from '../../utils/PlatformTools';
@@ -289,16 +289,44 @@ export class PickerWhellView extends React.Component<PickerWhellViewProps, State
    * 手动选中指定行
    * @param row 行索引
    * @param component 列索引
-   * @param animated 是否使用动画效果 (iOS)
+   * @param animated 是否使用动画效果
    */
   public selectRow(row: number, component: number, animated?: boolean) {
     if (isIOS) {
       this.iosSelectRow({ row, component, animated: animated === true });
     } else if (isAndroid) {
-      this.androidSetCurrentIndex(row, component);
+      this.androidSetCurrentIndex(row, component, animated === true);
     }
   }
 
+  /**
+   * 按前缀查找并选中某一列中的条目（仅Android支持）
+   * @param query 查询文字（忽略大小写与音调符号）
+   * @param component 列索引
+   */
+  public scrollToMatch(query: string, component: number) {
+    const ref = this.androidWhellRefs[component];
+    if (isAndroid && ref) {
+      UIManager.dispatchViewManagerCommand(
+        findNodeHandle(ref.current),
+        UIManager.getViewManagerConfig(ComponectAndroidName).Commands.scrollToMatch,
+        [ query ]
+      );
+    }
+  }
+  /**
+   * 按前缀查找某一列中的条目索引（仅Android支持）
+   * @param query 查询文字（忽略大小写与音调符号）
+   * @param component 列索引
+   * @returns 条目索引，没有匹配返回 -1
+   */
+  public findMatchIndex(query: string, component: number) : Promise<number> {
+    const ref = this.androidWhellRefs[component];
+    if (isAndroid && ref)
+      return NativeModules.PickerViewAndroid.findWheelItemIndex(findNodeHandle(ref.current), query);
+    return Promise.resolve(-1);
+  }
+
   private emitValueChange() {
     setTimeout(() => {
       if (!this.noEmit && this.props.onValueChange)
@@ -344,13 +372,14 @@ export class PickerWhellView extends React.Component<PickerWhellViewProps, State
     }
     return arr;
   }
-  private androidSetCurrentIndex(row: number, component: number) {
-    const ref = this.androidWhellRefs[row];
+  private androidSetCurrentIndex(row: number, component: number, animated: boolean) {
+    const ref = this.androidWhellRefs[component];
     if (ref) {
+      const commands = UIManager.getViewManagerConfig(ComponectAndroidName).Commands;
       UIManager.dispatchViewManagerCommand(
         findNodeHandle(ref.current),
-        UIManager.getViewManagerConfig(ComponectAndroidName).Commands.selectRow,
-        [ component ]
+        animated ? commands.scrollToIndex : commands.setCurrentIndex,
+        animated ? [ row, 300 ] : [ row ]
       );
     }
   }
@@ -4,9 +4,57 @@ import { isAndroid } from '../../../utils';
 
 const RCTAnyHeader = isAndroid ? requireNativeComponent('RCTAnyHeader') : undefined as any;
 
+/**
+ * 下拉动画的一个属性轨道。inputRange 为下拉百分比（1 为刚好到达刷新高度），
+ * outputRange 为对应的属性值，超出范围时取两端的值。
+ */
+export interface SmartRefreshHeaderAnimationTrack {
+  inputRange: number[];
+  outputRange: number[];
+}
+/**
+ * 刷新头的声明式下拉动画，在原生层根据下拉百分比插值，不经过 JS 线程。
+ * rotation 单位为度，translateX/translateY 单位为 dp。
+ */
+export interface SmartRefreshHeaderPullAnimation {
+  opacity?: SmartRefreshHeaderAnimationTrack;
+  rotation?: SmartRefreshHeaderAnimationTrack;
+  scale?: SmartRefreshHeaderAnimationTrack;
+  scaleX?: SmartRefreshHeaderAnimationTrack;
+  scaleY?: SmartRefreshHeaderAnimationTrack;
+  translateX?: SmartRefreshHeaderAnimationTrack;
+  translateY?: SmartRefreshHeaderAnimationTrack;
+}
+
+/**
+ * 自适应的刷新完成停留时间
+ */
+export interface SmartRefreshHeaderAdaptiveFinishDelay {
+  /**
+   * 刷新耗时超过该值（毫秒）时不再停留，直接弹回
+   */
+  skipAfter: number;
+  /**
+   * 刷新耗时较短时停留的时间（毫秒）
+   */
+  minDelay: number;
+}
+
 interface AnyHeaderProps extends ViewProps {
   primaryColor?: string;
   spinnerStyle?: 'translate'|'fixBehind'|'scale'|'fixFront'|'matchLayout',
+  /**
+   * 下拉动画，作用于刷新头的子视图
+   */
+  pullAnimation?: SmartRefreshHeaderPullAnimation,
+  /**
+   * 刷新完成后停留多久再弹回（毫秒），默认 500
+   */
+  finishDelay?: number,
+  /**
+   * 自适应停留时间，设置后 finishDelay 只作为上限
+   */
+  adaptiveFinishDelay?: SmartRefreshHeaderAdaptiveFinishDelay,
 }
 
 /**
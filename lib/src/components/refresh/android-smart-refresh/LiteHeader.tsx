@@ -0,0 +1,24 @@
+import React, { Component } from 'react';
+import { requireNativeComponent, ViewProps } from 'react-native';
+import { isAndroid } from '../../../utils';
+
+let RCTLiteHeader = undefined as any;
+
+interface LiteHeaderProps extends ViewProps {
+  primaryColor?: string;
+  accentColor?: string,
+  spinnerStyle?: 'translate'|'fixBehind'|'scale'|'fixFront'|'matchLayout',
+}
+
+/**
+ * SmartRefreshControl 的轻量默认刷新头，外观与默认刷新头相同，直接在 Canvas 上绘制，空闲状态使用共享的位图缓存
+ */
+export class SmartRefreshControlLiteHeader extends Component<LiteHeaderProps> {
+  componentDidMount(): void {
+    if (RCTLiteHeader === undefined)
+      RCTLiteHeader = isAndroid ? requireNativeComponent('RCTLiteHeader') : null as any;
+  }
+  render() {
+    return ( < RCTLiteHeader { ...this.props } />);
+  }
+}
@@ -13,6 +13,7 @@ import {
   NativeMethods,
 } from 'react-native';
 import { SmartRefreshControlDefaultHeader } from './DefaultHeader';
+import { SmartRefreshHeaderAdaptiveFinishDelay, SmartRefreshHeaderPullAnimation } from './AnyHeader';
 
 const SPModule = Platform.OS === 'android' ? (NativeModules.SpinnerStyleModule || {}) : {};
 
@@ -34,6 +35,38 @@ interface SmartRefreshControlFooterReleasedEventData {
   footerHeight: number;
   maxDragHeight: number;
 }
+interface SmartRefreshControlMetricsStat {
+  count: number;
+  total: number;
+  average: number;
+  min: number;
+  max: number;
+}
+/**
+ * 刷新过程的耗时统计，时间单位为毫秒
+ */
+export interface SmartRefreshControlMetrics {
+  /**
+   * 视图创建到第一次手指下拉，未下拉过为 -1
+   */
+  firstPull: number;
+  /**
+   * 进入刷新状态到调用 finishRefresh
+   */
+  refresh: SmartRefreshControlMetricsStat;
+  /**
+   * 调用 finishRefresh 到刷新头完全收回
+   */
+  finish: SmartRefreshControlMetricsStat;
+  /**
+   * 手指拖动过程中的总帧数
+   */
+  draggingFrames: number;
+  /**
+   * 手指拖动过程中的掉帧数
+   */
+  droppedFrames: number;
+}
 //内部使用事件
 interface SmartRefreshControlInternalProps extends ViewProps {
   onSmartRefresh?: () => void,
@@ -45,6 +78,7 @@ interface SmartRefreshControlInternalProps extends ViewProps {
   onFooterMoving?: (e : NativeSyntheticEvent<SmartRefreshControlFooterMovingEventData>) => void,
   onPullDownToRefresh?: () => void,
   onReleaseToRefresh?: () => void,
+  onRefreshMetrics?: (e : NativeSyntheticEvent<SmartRefreshControlMetrics>) => void,
 }
 
 
@@ -57,6 +91,24 @@ export interface SmartRefreshControlProps extends ViewProps, SmartRefreshControl
    * 自定义渲染头部
    */
   renderHeader?: (() => JSX.Element)|JSX.Element,
+  /**
+   * 自定义渲染加载更多的底部视图，需要同时设置 enableLoadMore
+   */
+  renderFooter?: (() => JSX.Element)|JSX.Element,
+  /**
+   * 是否启用上拉加载更多功能，默认 false
+   */
+  enableLoadMore?: boolean,
+  /**
+   * 加载更多的预取距离（dp）。内容离底部小于该距离时提前触发 onLoadMore，
+   * 默认为0，即只在拉到底部时触发。触发后需要调用 finishLoadMore 才会再次触发。
+   */
+  prefetchDistance?: number,
+  /**
+   * 是否通过嵌套滚动协议接收内容（ScrollView/FlatList）滚动到边界后的越界滚动，默认 false。
+   * 开启后会同时打开内容 ScrollView 的 nestedScrollEnabled。
+   */
+  nestedScrollContent?: boolean,
   /**
    * 头部高度
    */
@@ -92,6 +144,24 @@ export interface SmartRefreshControlProps extends ViewProps, SmartRefreshControl
     refresh: boolean,
     time: number,
   },
+  /**
+   * onHeaderPulling/onFooterMoving 事件的最小发送间隔（毫秒）。
+   * 默认为0，此时事件每帧最多发送一次。
+   */
+  pullEventThrottle?: number,
+  /**
+   * 自定义刷新头（renderHeader 返回的普通视图）的下拉动画，在原生层执行。
+   * 使用 SmartRefreshControlAnyHeader 时请使用它的 pullAnimation 属性。
+   */
+  headerPullAnimation?: SmartRefreshHeaderPullAnimation,
+  /**
+   * 自定义刷新头刷新完成后停留多久再弹回（毫秒），默认 500
+   */
+  headerFinishDelay?: number,
+  /**
+   * 自定义刷新头的自适应停留时间，设置后 headerFinishDelay 只作为上限
+   */
+  headerAdaptiveFinishDelay?: SmartRefreshHeaderAdaptiveFinishDelay,
 }
 
 /**
@@ -116,6 +186,29 @@ export class SmartRefreshControl extends Component<SmartRefreshControlProps> {
     this.dispatchCommand('finishRefresh', [ delayed, success, hasMoreData ]);
   };
 
+  /**
+   * 手动完成加载更多
+   * @param delayed 结束延时（ms）
+   * @param success 是否成功
+   * @param noMoreData 是否已经没有更多数据
+   */
+  finishLoadMore = (delayed = -1, success = true, noMoreData = false) => {
+    this.dispatchCommand('finishLoadMore', [ delayed, success, noMoreData ]);
+  };
+
+  /**
+   * 获取刷新过程的耗时统计
+   * @param reset 获取后是否清空已有数据
+   */
+  getRefreshMetrics = (reset = false) => {
+    return new Promise<SmartRefreshControlMetrics>((resolve) => {
+      this.metricsResolvers.push(resolve);
+      this.dispatchCommand('getRefreshMetrics', [ reset ]);
+    });
+  };
+
+  private metricsResolvers : ((metrics: SmartRefreshControlMetrics) => void)[] = [];
+
   private dispatchCommand = (commandName: string, params: unknown[]) => {
     UIManager.dispatchViewManagerCommand(
       this.findNode(),
@@ -153,6 +246,15 @@ export class SmartRefreshControl extends Component<SmartRefreshControlProps> {
       return typeof renderHeader === 'function' ?  renderHeader() : renderHeader;
     return <SmartRefreshControlDefaultHeader />;
   };
+  /**
+   * 渲染Footer
+   */
+  private renderFooter = () => {
+    const { renderFooter } = this.props;
+    if (renderFooter)
+      return typeof renderFooter === 'function' ? renderFooter() : renderFooter;
+    return null;
+  };
   /**
    * 刷新时触发
    * @private
@@ -190,6 +292,13 @@ export class SmartRefreshControl extends Component<SmartRefreshControlProps> {
     this.footerShiftPercent = event.nativeEvent.percent;
   };
 
+  _onRefreshMetrics = (event: NativeSyntheticEvent<SmartRefreshControlMetrics>) => {
+    const resolve = this.metricsResolvers.shift();
+    resolve && resolve(event.nativeEvent);
+    let { onRefreshMetrics } = this.props;
+    onRefreshMetrics && onRefreshMetrics(event);
+  };
+
   private refreshLayoutRef = createRef<Component<SmartRefreshControlInternalProps> & Readonly<NativeMethods>>();
 
   render() {
@@ -200,6 +309,7 @@ export class SmartRefreshControl extends Component<SmartRefreshControlProps> {
         onHeaderPulling: this._onHeaderPulling,
         onHeaderReleased: this._onHeaderReleased,
         onFooterMoving: this._onFooterMoving,
+        onRefreshMetrics: this._onRefreshMetrics,
         primaryColor: this.props.primaryColor,
       },
     };
@@ -211,6 +321,7 @@ export class SmartRefreshControl extends Component<SmartRefreshControlProps> {
           { ...(this._panResponder ? this._panResponder.panHandlers : {})}>
           {this.renderHeader()}
           {this.props.children}
+          {this.renderFooter()}
         </SmartRefreshLayout> :
         <></>
     );
@@ -1,5 +1,6 @@
 export * from './android-smart-refresh/AnyHeader';
 export * from './android-smart-refresh/ClassicsHeader';
 export * from './android-smart-refresh/DefaultHeader';
+export * from './android-smart-refresh/LiteHeader';
 export * from './android-smart-refresh/MaterialHeader';
 export * from './android-smart-refresh/SmartRefreshControl';
@@ -19,6 +19,17 @@ export interface ImagePickerBaseOptions {
     isForbidCropGifWebp?: boolean;
     maxScaleMultiplier?: number;
   },
+  /**
+   * 只返回这些字段，不设置则返回全部字段
+   * @platform Android
+   */
+  fields?: (keyof ImagePickerChooseMedia)[];
+  /**
+   * 选择数量达到该值时原生按列返回结果（ImagePickerChooseResult.columns），减少转换开销，默认 0 不使用。
+   * 按列返回时 result 只在第一次读取时才转换为普通数组，只需要部分字段的调用者可以直接读取 columns
+   * @platform Android
+   */
+  columnarThreshold?: number;
 }
 export interface ImagePickerCameraOptions extends ImagePickerBaseOptions {
   recordVideoMaxSecond?: number;
@@ -59,6 +70,22 @@ export interface ImagePickerAlbumOptions extends ImagePickerBaseOptions  {
   maxFileSize?: number;
   minDurationSecond?: number;
   maxDurationSecond?: number;
+  /**
+   * 相册列表缩略图的解码格式，默认 rgb565。
+   * rgb565：不透明图片使用 RGB_565，内存减半；argb8888：不使用硬件位图；hardware：使用 Glide 默认格式（允许时使用硬件位图）
+   * @platform Android
+   */
+  thumbnailDecodeFormat?: 'rgb565'|'argb8888'|'hardware';
+  /**
+   * 选择相册期间图片内存缓存的大小，low 为默认的0.5倍，high 为1.5倍，选择完成后恢复默认
+   * @platform Android
+   */
+  memoryCategory?: 'low'|'normal'|'high';
+  /**
+   * 相册列表滚动时向滚动方向预加载的行数，默认 3，0 表示不预加载
+   * @platform Android
+   */
+  prefetchRows?: number;
 }
 export interface ImagePickerChooseMedia {
   id: number,
@@ -72,8 +99,48 @@ export interface ImagePickerChooseMedia {
   height: number,
   size: number,
 }
+/**
+ * 原生按列返回的结果，每个字段一个数组，数组的第 i 项为第 i 个选择结果的值
+ */
+export interface ImagePickerColumnarResult {
+  count: number;
+  columns: { [K in keyof ImagePickerChooseMedia]?: ImagePickerChooseMedia[K][] };
+}
 export interface ImagePickerChooseResult {
+  /**
+   * 选择结果。按列返回时在第一次读取时才转换
+   */
   result: ImagePickerChooseMedia[];
+  /**
+   * 按列返回的原始结果，只在设置了 columnarThreshold 并且选择数量达到该值时存在
+   * @platform Android
+   */
+  columns?: ImagePickerColumnarResult;
+}
+
+function decodeColumns(res: ImagePickerColumnarResult) : ImagePickerChooseMedia[] {
+  const fields = Object.keys(res.columns) as (keyof ImagePickerChooseMedia)[];
+  const result = new Array<ImagePickerChooseMedia>(res.count);
+  for (let i = 0; i < res.count; i++) {
+    const item = {} as Record<string, unknown>;
+    for (const field of fields)
+      item[field] = res.columns[field]?.[i];
+    result[i] = item as unknown as ImagePickerChooseMedia;
+  }
+  return result;
+}
+function toChooseResult(res: ImagePickerChooseMedia[]|ImagePickerColumnarResult) : ImagePickerChooseResult {
+  if (Array.isArray(res))
+    return { result: res };
+  let decoded: ImagePickerChooseMedia[]|null = null;
+  return {
+    columns: res,
+    get result() {
+      if (!decoded)
+        decoded = decodeColumns(res);
+      return decoded;
+    },
+  };
 }
 
 /**
@@ -86,10 +153,8 @@ export const ImagePicker = {
   camera(options: ImagePickerCameraOptions) {
     return new Promise<ImagePickerChooseResult>((resolve, reject) => {
       if (isIOS || isAndroid) {
-        NativeModules.NaImagePicker.camera(options, (resArr: ImagePickerChooseMedia[]) => {
-          resolve({
-            result: resArr,
-          });
+        NativeModules.NaImagePicker.camera(options, (resArr: ImagePickerChooseMedia[]|ImagePickerColumnarResult) => {
+          resolve(toChooseResult(resArr));
         }, () => reject('cancel'));
       } else reject('not support');
     });
@@ -100,10 +165,8 @@ export const ImagePicker = {
   pick(options: ImagePickerAlbumOptions) {
     return new Promise<ImagePickerChooseResult>((resolve, reject) => {
       if (isIOS || isAndroid) {
-        NativeModules.NaImagePicker.pick(options, (resArr: ImagePickerChooseMedia[]) => {
-          resolve({
-            result: resArr,
-          });
+        NativeModules.NaImagePicker.pick(options, (resArr: ImagePickerChooseMedia[]|ImagePickerColumnarResult) => {
+          resolve(toChooseResult(resArr));
         }, () => reject('cancel'));
       } else reject('not support');
     });
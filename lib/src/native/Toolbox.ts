@@ -79,15 +79,27 @@ function installApk(path: string) {
 }
 /**
  * 获取App缓存信息
+ * @param forceRefresh 是否强制重新统计全部目录（Android 默认只重新统计有变化或超过30秒没有统计的目录）
  */
-function getCacheInfo() {
+function getCacheInfo(forceRefresh = false) {
   return new Promise<CacheInfo>((resolve, reject) => {
     if (isAndroid || isIOS)
-      NaToolboxModule.getCacheInfo({}, (d: CacheInfo) => resolve(d), (e: string) => reject(e));
+      NaToolboxModule.getCacheInfo({ forceRefresh }, (d: CacheInfo) => resolve(d), (e: string) => reject(e));
     else
       reject('Not support');
   });
 }
+/**
+ * 获取App缓存总大小（字节）。
+ * 统计在后台进行，结果会被缓存，之后只重新统计有变化或超过30秒没有统计的目录。
+ * @param forceRefresh 是否强制重新统计全部目录
+ * @platform Android
+ */
+function getCacheSize(forceRefresh = false) : Promise<number> {
+  if (isAndroid)
+    return NaToolboxModule.getCacheSize({ forceRefresh });
+  return getCacheInfo().then((info) => info.cacheSize);
+}
 /**
  * 清除App缓存
  * @param callback 清除完成回调
@@ -104,6 +116,177 @@ function clearAppCache(callback: () => void) {
     }, 1000);
 }
 
+/**
+ * 按范围清除缓存的参数
+ */
+export interface ClearAppCacheOptions {
+  /**
+   * 任务ID，用于取消任务以及区分进度事件
+   */
+  taskId?: string;
+  /**
+   * 是否同时清除 filesDir，默认 false
+   */
+  includeFilesDir?: boolean;
+  /**
+   * 只清除这些路径下的文件（绝对路径，或相对于缓存根目录的路径），不设置则清除全部缓存
+   */
+  include?: string[];
+  /**
+   * 不清除这些路径下的文件（绝对路径，或相对于缓存根目录的路径）
+   */
+  exclude?: string[];
+  /**
+   * 清除进度回调
+   */
+  onProgress?: (deletedFiles: number, freedBytes: number) => void;
+}
+/**
+ * 清除缓存的结果
+ */
+export interface ClearAppCacheResult {
+  deletedFiles: number;
+  freedBytes: number;
+  /**
+   * 是否被取消
+   */
+  cancelled: boolean;
+}
+
+let clearCacheTaskId = 0;
+
+/**
+ * 按范围清除App缓存，在后台并行删除，可通过 cancelClearAppCache 取消
+ * @param options 参数
+ * @platform Android
+ */
+function clearAppCacheWithOptions(options: ClearAppCacheOptions = {}) : Promise<ClearAppCacheResult> {
+  if (!isAndroid)
+    return Promise.reject('Not support');
+  const { onProgress, ...nativeOptions } = options;
+  const taskId = options.taskId || `clearAppCache${clearCacheTaskId++}`;
+  const subscription = onProgress ? eventEmitter?.addListener('onClearCacheProgress', (data) => {
+    if (data.taskId === taskId)
+      onProgress(data.deletedFiles, data.freedBytes);
+  }) : undefined;
+  return (NaToolboxModule.clearAppCacheWithOptions({ ...nativeOptions, taskId }) as Promise<ClearAppCacheResult>)
+    .then((result) => {
+      subscription?.remove();
+      return result;
+    }, (e) => {
+      subscription?.remove();
+      throw e;
+    });
+}
+/**
+ * 取消清除App缓存任务
+ * @param taskId 任务ID
+ * @platform Android
+ */
+function cancelClearAppCache(taskId: string) {
+  if (isAndroid)
+    NaToolboxModule.cancelClearAppCache(taskId);
+}
+
+/**
+ * 一个缓存目录的统计结果
+ */
+export interface CacheBreakdownItem {
+  /**
+   * 所在的缓存根目录
+   */
+  root: string;
+  /**
+   * 目录名，根目录自身的文件为 "."
+   */
+  name: string;
+  path: string;
+  size: number;
+}
+/**
+ * 按目录统计缓存大小的参数
+ */
+export interface CacheBreakdownOptions {
+  /**
+   * 是否忽略缓存的结果重新统计全部目录，默认 false
+   */
+  forceRefresh?: boolean;
+  /**
+   * 每统计完一个目录的回调
+   * @param cached 是否直接使用了缓存的结果
+   */
+  onItem?: (item: CacheBreakdownItem, cached: boolean) => void;
+}
+
+let cacheBreakdownTaskId = 0;
+
+/**
+ * 按缓存根目录下的一级子目录统计缓存大小，在后台并行统计，每完成一个目录就通过 onItem 返回。
+ * 与 getCacheSize 使用同一份统计结果，之后只重新统计有变化或超过有效时间（30秒）的目录。
+ * @param options 参数
+ * @platform Android
+ */
+function getCacheBreakdown(options: CacheBreakdownOptions = {}) : Promise<CacheBreakdownItem[]> {
+  if (!isAndroid)
+    return Promise.reject('Not support');
+  const { onItem, forceRefresh = false } = options;
+  const taskId = `cacheBreakdown${cacheBreakdownTaskId++}`;
+  const subscription = onItem ? eventEmitter?.addListener('onCacheBreakdownItem', (data) => {
+    if (data.taskId === taskId)
+      onItem({ root: data.root, name: data.name, path: data.path, size: data.size }, data.cached);
+  }) : undefined;
+  return (NaToolboxModule.getCacheBreakdown({ taskId, forceRefresh }) as Promise<CacheBreakdownItem[]>)
+    .then((result) => {
+      subscription?.remove();
+      return result;
+    }, (e) => {
+      subscription?.remove();
+      throw e;
+    });
+}
+
+/**
+ * 缓存清理结果
+ */
+export interface TrimCacheResult {
+  deletedFiles: number;
+  freedBytes: number;
+  /**
+   * 清理后剩余的缓存大小（字节）
+   */
+  remainingBytes: number;
+}
+
+/**
+ * 设置缓存容量上限。超出时在后台按最近使用时间从旧到新删除 cacheDir 和外部缓存目录中的文件，
+ * 设置会被保存，之后启动App时也会生效。
+ * @param bytes 上限（字节），0表示不限制
+ * @platform Android
+ */
+function setCacheBudget(bytes: number) : Promise<void> {
+  if (isAndroid)
+    return NaToolboxModule.setCacheBudget(bytes);
+  return Promise.reject('Not support');
+}
+/**
+ * 获取缓存容量上限（字节），0表示不限制
+ * @platform Android
+ */
+function getCacheBudget() : Promise<number> {
+  if (isAndroid)
+    return NaToolboxModule.getCacheBudget();
+  return Promise.reject('Not support');
+}
+/**
+ * 按最近使用时间把缓存清理到指定大小以内
+ * @param targetBytes 目标大小（字节）
+ * @platform Android
+ */
+function trimCache(targetBytes: number) : Promise<TrimCacheResult> {
+  if (isAndroid)
+    return NaToolboxModule.trimCache(targetBytes);
+  return Promise.reject('Not support');
+}
 
 /**
  * 输出Log至android logcat 或者是 XCode console
@@ -161,8 +344,15 @@ function getSystemTheme() : Promise<Theme> {
  */
 export const ToolBox = {
   clearAppCache,
+  clearAppCacheWithOptions,
+  cancelClearAppCache,
+  setCacheBudget,
+  getCacheBudget,
+  trimCache,
   getPackageInfo,
   getCacheInfo,
+  getCacheSize,
+  getCacheBreakdown,
   installApk,
   nativeLog,
   getSystemTheme,
@@ -38,6 +38,116 @@ export interface MeasureOptions {
   height?: number;
 }
 
+export interface MeasureBatchOptions {
+  /**
+   * 字体
+   */
+  fontFamily?: string,
+  /**
+   * 字号
+   */
+  fontSize: number,
+  /**
+   * 文字粗细
+   */
+  fontWeight?: FontWeight,
+  /**
+   * 需要计算的文字
+   */
+  texts: string[],
+  /**
+   * 最大宽度，设置后按此宽度换行计算行数和高度，不设置则不换行
+   */
+  maxWidth?: number;
+}
+
+/**
+ * measureTextBatch 返回结果中每段文字占用的长度：宽度、行数、高度
+ */
+export const MEASURE_BATCH_STRIDE = 3;
+
+export interface MeasureBatchSyncOptions extends MeasureBatchOptions {
+  /**
+   * 时间预算（毫秒），默认 8。超时后剩余的文字使用估算值
+   */
+  timeBudget?: number;
+}
+export interface MeasureBatchSyncResult {
+  /**
+   * 每段文字的宽度、行数、高度，格式与 measureTextBatch 相同
+   */
+  result: Float64Array;
+  /**
+   * 是否全部为实际测量的结果，为 false 时部分结果是估算值，可以之后再用 measureTextBatch 获取准确结果
+   */
+  complete: boolean;
+}
+
+export interface FitTextOptions {
+  /**
+   * 字体
+   */
+  fontFamily?: string,
+  /**
+   * 最大字号
+   */
+  fontSize: number,
+  /**
+   * 最小字号，默认为 fontSize 的一半
+   */
+  minFontSize?: number,
+  /**
+   * 字号步长，默认 0.5
+   */
+  step?: number,
+  /**
+   * 文字粗细
+   */
+  fontWeight?: FontWeight,
+  /**
+   * 需要适配的文字
+   */
+  text: string,
+  /**
+   * 最大宽度
+   */
+  maxWidth: number;
+  /**
+   * 最大行数，默认 1
+   */
+  maxLines?: number;
+  /**
+   * 截断时添加在末尾的省略号，默认 "…"
+   */
+  ellipsis?: string;
+}
+export interface FitTextResult {
+  /**
+   * 能够放下文字的最大字号
+   */
+  fontSize: number;
+  /**
+   * 最小字号仍然放不下时保留的字符数（不含省略号），放得下时为文字长度
+   */
+  truncateAt: number;
+  /**
+   * 是否需要截断
+   */
+  truncated: boolean;
+}
+
+/**
+ * 无法测量时按字号粗略估算文字尺寸
+ */
+function estimateTextLayout(text: string, options: MeasureBatchOptions, out: Float64Array, offset: number) {
+  const lineHeight = options.fontSize * 1.2;
+  const width = text.length * options.fontSize * 0.6;
+  const lines = options.maxWidth && options.maxWidth > 0 ? Math.max(1, Math.ceil(width / options.maxWidth)) : 1;
+  out[offset] = lines > 1 ? options.maxWidth as number : width;
+  out[offset + 1] = lines;
+  out[offset + 2] = lines * lineHeight;
+}
+
 let canvasGlobal : any = null;
 
 export default {
@@ -63,4 +173,65 @@ export default {
         reject('Not support');
     });
   },
+  /**
+   * 批量计算文字宽度、行数和高度，在原生后台线程中计算，一批文字只需要一次通信。
+   * @param options 参数
+   * @returns 返回结果数组，第 i 段文字的宽度、行数、高度依次位于
+   * [i * MEASURE_BATCH_STRIDE]、[i * MEASURE_BATCH_STRIDE + 1]、[i * MEASURE_BATCH_STRIDE + 2]
+   * @platform Android
+   */
+  measureTextBatch(options: MeasureBatchOptions) : Promise<Float64Array> {
+    if (!isAndroid)
+      return Promise.reject('Not support');
+    return (NativeModules.NaMeasureTextModule.measureTextBatch(options) as Promise<number[]>)
+      .then((result) => Float64Array.from(result));
+  },
+  /**
+   * 同步批量计算文字宽度、行数和高度，可以在渲染过程中直接使用结果。
+   * 在原生中按时间预算测量，超时或不支持同步调用（例如远程调试）时，剩余的文字使用按字号估算的值。
+   * @param options 参数
+   * @platform Android
+   */
+  measureTextBatchSync(options: MeasureBatchSyncOptions) : MeasureBatchSyncResult {
+    const result = new Float64Array(options.texts.length * MEASURE_BATCH_STRIDE);
+    let measured = 0;
+    if (isAndroid) {
+      try {
+        const native = NativeModules.NaMeasureTextModule.measureTextBatchSync(options) as { measured: number, result: number[] }|null;
+        if (native) {
+          result.set(native.result);
+          measured = native.measured;
+        }
+      } catch (e) {
+        measured = 0;
+      }
+    }
+    for (let i = measured; i < options.texts.length; i++)
+      estimateTextLayout(options.texts[i], options, result, i * MEASURE_BATCH_STRIDE);
+    return { result, complete: measured === options.texts.length };
+  },
+  /**
+   * 在原生中二分查找能够在指定宽度和行数内放下文字的最大字号，最小字号仍然放不下时同时返回截断位置。
+   * @param options 参数
+   * @platform Android
+   */
+  fitText(options: FitTextOptions) : Promise<FitTextResult> {
+    if (!isAndroid)
+      return Promise.reject('Not support');
+    return NativeModules.NaMeasureTextModule.fitText(options);
+  },
+  /**
+   * 同步版本的 fitText，不支持同步调用时返回 null
+   * @param options 参数
+   * @platform Android
+   */
+  fitTextSync(options: FitTextOptions) : FitTextResult|null {
+    if (!isAndroid)
+      return null;
+    try {
+      return NativeModules.NaMeasureTextModule.fitTextSync(options);
+    } catch (e) {
+      return null;
+    }
+  },
 };